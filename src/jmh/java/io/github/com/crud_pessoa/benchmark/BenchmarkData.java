@@ -0,0 +1,54 @@
+package io.github.com.crud_pessoa.benchmark;
+
+import io.github.com.crud_pessoa.dto.AddressRequestDTO;
+import io.github.com.crud_pessoa.dto.AddressResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public final class BenchmarkData {
+    private BenchmarkData() {
+    }
+
+    public static PersonRequestDTO personRequest(int addresses) {
+        return new PersonRequestDTO("Josias Barreto", LocalDate.of(1994, 9, 24), "128.363.000-19",
+                IntStream.range(0, addresses)
+                        .mapToObj(i -> new AddressRequestDTO((long) i + 1, "Avenida José Carlos Pereira Pinto", String.valueOf(100 + i), "Parque Guarus", "Campos dos Goytacazes", "RJ", "28143-000"))
+                        .toList());
+    }
+
+    public static PersonResponseDTO personResponse(long id, int addresses) {
+        return new PersonResponseDTO(id, "Josias Barreto", LocalDate.of(1994, 9, 24), "128.363.000-19",
+                IntStream.range(0, addresses)
+                        .mapToObj(i -> new AddressResponseDTO(id * 100 + i, "Avenida José Carlos Pereira Pinto", String.valueOf(100 + i), "Parque Guarus", "Campos dos Goytacazes", "RJ", "28143-000"))
+                        .toList(),
+                0L);
+    }
+
+    // Distinct valid CPFs: n becomes the nine base digits, followed by its two check digits.
+    public static String cpf(long n) {
+        int[] digits = new int[11];
+        for (int i = 8; i >= 0; i--, n /= 10) {
+            digits[i] = (int) (n % 10);
+        }
+        for (int check = 9; check <= 10; check++) {
+            int sum = 0;
+            for (int i = 0; i < check; i++) {
+                sum += digits[i] * (check + 1 - i);
+            }
+            digits[check] = sum % 11 < 2 ? 0 : 11 - sum % 11;
+        }
+        StringBuilder cpf = new StringBuilder(11);
+        for (int digit : digits) {
+            cpf.append(digit);
+        }
+        return cpf.toString();
+    }
+
+    public static List<PersonResponseDTO> personResponses(int persons, int addresses) {
+        return IntStream.rangeClosed(1, persons).mapToObj(id -> personResponse(id, addresses)).toList();
+    }
+}
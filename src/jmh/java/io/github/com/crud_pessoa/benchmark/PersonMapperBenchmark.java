@@ -0,0 +1,45 @@
+package io.github.com.crud_pessoa.benchmark;
+
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.mapper.AddressMapperImpl;
+import io.github.com.crud_pessoa.mapper.PersonMapperImpl;
+import io.github.com.crud_pessoa.model.Person;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonMapperBenchmark {
+    @Param({"1", "5", "50"})
+    private int addresses;
+
+    private PersonMapperImpl mapper;
+    private PersonRequestDTO request;
+    private Person entity;
+
+    @Setup
+    public void setup() {
+        mapper = new PersonMapperImpl();
+        ReflectionTestUtils.setField(mapper, "addressMapper", new AddressMapperImpl());
+        request = BenchmarkData.personRequest(addresses);
+        entity = mapper.toEntity(request);
+        entity.setId(1L);
+    }
+
+    @Benchmark
+    public Person toEntity() {
+        return mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public PersonResponseDTO toDTO() {
+        return mapper.toDTO(entity);
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.com.crud_pessoa.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonSerializationBenchmark {
+    @Param({"1", "5", "50"})
+    private int addresses;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private PersonResponseDTO person;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        writer = objectMapper.writerFor(PersonResponseDTO.class);
+        reader = objectMapper.readerFor(PersonResponseDTO.class);
+        person = BenchmarkData.personResponse(1L, addresses);
+        json = writer.writeValueAsBytes(person);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(person);
+    }
+
+    @Benchmark
+    public PersonResponseDTO deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.com.crud_pessoa.benchmark;
+
+import io.github.com.crud_pessoa.dto.AddressRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate Validator over PersonRequestDTO: the @CPF check, the name/state/ZIP @Patterns and the cascaded
+ * address validation, for a valid request and for one that fails every pattern.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonValidationBenchmark {
+    @Param({"1", "5"})
+    private int addresses;
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private PersonRequestDTO valid;
+    private PersonRequestDTO invalid;
+
+    @Setup
+    public void setup() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        valid = BenchmarkData.personRequest(addresses);
+        invalid = new PersonRequestDTO("josias", LocalDate.of(1994, 9, 24), "123.456.789-00",
+                List.of(new AddressRequestDTO(null, "Rua", "1", "Centro", "Campos", "rj", "28143000-")));
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PersonRequestDTO>> validRequest() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PersonRequestDTO>> invalidRequest() {
+        return validator.validate(invalid);
+    }
+}
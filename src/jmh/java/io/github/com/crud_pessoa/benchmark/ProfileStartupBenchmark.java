@@ -0,0 +1,53 @@
+package io.github.com.crud_pessoa.benchmark;
+
+import io.github.com.crud_pessoa.Application;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the whole application, web server included, once per fork: dev (in-memory H2 echoing SQL to stdout,
+ * what prod used to be) against prod (file-backed H2 with a fixed Hikari pool). Both apply the Flyway migrations to
+ * an empty database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 5, jvmArgs = {"-Xmx1g"})
+public class ProfileStartupBenchmark {
+    @Param({"dev", "prod"})
+    private String profile;
+
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void createDataDir() throws IOException {
+        dataDir = Files.createTempDirectory("crud-pessoa-startup");
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() {
+        context.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDataDir() throws IOException {
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext boot() {
+        context = new SpringApplicationBuilder(Application.class)
+                .run("--spring.profiles.active=" + profile, "--DATA_DIR=" + dataDir, "--server.port=0");
+        return context;
+    }
+}
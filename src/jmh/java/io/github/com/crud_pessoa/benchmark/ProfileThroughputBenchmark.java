@@ -0,0 +1,80 @@
+package io.github.com.crud_pessoa.benchmark;
+
+import io.github.com.crud_pessoa.Application;
+import io.github.com.crud_pessoa.dto.AddressRequestDTO;
+import io.github.com.crud_pessoa.dto.CursorPageResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonBatchItemResultDTO;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.service.PersonService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Service throughput under each profile with 4 threads: batches of 50 new persons (JDBC batching, SQL logging) and
+ * keyset list pages. dev is the in-memory H2 echoing every statement to stdout, what prod used to be; prod is the
+ * file-backed H2, so its writes also pay for durability.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@Threads(4)
+public class ProfileThroughputBenchmark {
+    private static final int BATCH = 50;
+
+    @Param({"dev", "prod"})
+    private String profile;
+
+    private final AtomicLong cpfs = new AtomicLong(100_000_000L);
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+    private PersonService service;
+
+    @Setup
+    public void setup() throws IOException {
+        dataDir = Files.createTempDirectory("crud-pessoa-throughput");
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=" + profile, "--DATA_DIR=" + dataDir);
+        service = context.getBean(PersonService.class);
+        service.savePersons(batch());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public List<PersonBatchItemResultDTO> createBatch() {
+        return service.savePersons(batch());
+    }
+
+    @Benchmark
+    public CursorPageResponseDTO<PersonResponseDTO> listPage() {
+        return service.getPersonsAfter(null, 20);
+    }
+
+    private List<PersonRequestDTO> batch() {
+        return IntStream.range(0, BATCH)
+                .mapToObj(i -> new PersonRequestDTO("Josias Barreto", LocalDate.of(1994, 9, 24), BenchmarkData.cpf(cpfs.getAndIncrement()),
+                        List.of(new AddressRequestDTO(null, "Avenida José Carlos Pereira Pinto", "178-A", "Parque Guarus", "Campos dos Goytacazes", "RJ", "28143-000"))))
+                .toList();
+    }
+}
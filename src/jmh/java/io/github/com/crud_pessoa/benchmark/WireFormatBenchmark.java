@@ -0,0 +1,67 @@
+package io.github.com.crud_pessoa.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@code GET /person?size=1000} page in each wire format the controller negotiates: server-side encoding of
+ * the page envelope, and a client decoding it back into DTOs. Payload sizes are printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+    private static final int PERSONS = 1000;
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Page<PersonResponseDTO> page;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper(format.equals("cbor") ? new CBORFactory() : new JsonFactory())
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        writer = objectMapper.writer();
+        reader = objectMapper.readerFor(ClientPage.class);
+        page = new PageImpl<>(BenchmarkData.personResponses(PERSONS, 2), PageRequest.of(0, PERSONS), 100_000);
+        payload = writer.writeValueAsBytes(page);
+        System.out.printf("%n%s page of %d persons: %d bytes%n", format, PERSONS, payload.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public ClientPage decode() throws IOException {
+        return reader.readValue(payload);
+    }
+
+    // what a consumer binds the page to; the Pageable/Sort details of the envelope are skipped
+    public record ClientPage(List<PersonResponseDTO> content, long totalElements, int totalPages) {
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.com.crud_pessoa.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.com.crud_pessoa.benchmark.BenchmarkData;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a cached person as the JSON body of GET /person/{id}: Jackson's converter serializing it on every
+ * request, against the converter that writes the bytes cached for its id and version. Run with {@code -prof gc}
+ * for the allocation per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonJsonMessageConverterBenchmark {
+    @Param({"1", "5"})
+    private int addresses;
+
+    private MappingJackson2HttpMessageConverter jackson;
+    private PersonJsonMessageConverter cached;
+    private PersonResponseDTO person;
+    private HttpOutputMessage response;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+        cached = new PersonJsonMessageConverter(objectMapper, new SimpleMeterRegistry(), DataSize.ofMegabytes(1));
+        person = BenchmarkData.personResponse(1L, addresses);
+        HttpHeaders headers = new HttpHeaders();
+        OutputStream body = OutputStream.nullOutputStream();
+        response = new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+
+    @Benchmark
+    public void jackson() throws IOException {
+        jackson.write(person, MediaType.APPLICATION_JSON, response);
+    }
+
+    @Benchmark
+    public void cachedBytes() throws IOException {
+        cached.write(person, MediaType.APPLICATION_JSON, response);
+    }
+}
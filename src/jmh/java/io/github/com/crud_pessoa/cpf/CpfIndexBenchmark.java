@@ -0,0 +1,54 @@
+package io.github.com.crud_pessoa.cpf;
+
+import io.github.com.crud_pessoa.benchmark.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * CPF checks against an index holding ten million CPFs, from several threads at once: a create that finds its CPF
+ * taken, and one that reserves a free CPF and releases it again (a rolled back create). The index's heap footprint
+ * is printed after the load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(4)
+public class CpfIndexBenchmark {
+    @Param({"10000000"})
+    private int cpfs;
+
+    private CpfIndex index;
+    private String[] registered;
+    private String[] free;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        index = new CpfIndex();
+        index.load(LongStream.range(0, cpfs).mapToObj(n -> BenchmarkData.cpf(n * 2))::iterator);
+        System.out.printf("%n%d CPFs in %.1f MB (%.2f bytes per CPF)%n", index.size(), index.memoryBytes() / 1e6,
+                (double) index.memoryBytes() / index.size());
+        registered = LongStream.range(0, 4096).mapToObj(n -> BenchmarkData.cpf(n * 4_000)).toArray(String[]::new);
+        free = LongStream.range(0, 4096).mapToObj(n -> BenchmarkData.cpf(n * 4_000 + 1)).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public boolean takenCpf() {
+        return index.reserve(registered[ThreadLocalRandom.current().nextInt(registered.length)]);
+    }
+
+    @Benchmark
+    public boolean reserveAndRelease() {
+        String cpf = free[ThreadLocalRandom.current().nextInt(free.length)];
+        boolean reserved = index.reserve(cpf);
+        if (reserved) {
+            index.release(cpf);
+        }
+        return reserved;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.com.crud_pessoa.search;
+
+import io.github.com.crud_pessoa.dto.PersonNameMatchDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name index queries over millions of generated Brazilian names: an exact full name, the same name typed without
+ * accents and with a typo, and a single common first name (the worst case: long posting lists, many candidates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PersonNameIndexBenchmark {
+    private static final String[] FIRST = {"Ana", "Maria", "João", "José", "Antônio", "Francisco", "Carlos", "Paulo",
+            "Pedro", "Lucas", "Luiz", "Marcos", "Luís", "Gabriel", "Rafael", "Daniel", "Marcelo", "Bruno", "Eduardo",
+            "Felipe", "Raimundo", "Rodrigo", "Juliana", "Márcia", "Fernanda", "Patrícia", "Aline", "Sandra", "Camila",
+            "Amanda", "Bruna", "Jéssica", "Letícia", "Júlia", "Luciana", "Vanessa", "Mariana", "Gabriela", "Vera",
+            "Vitória", "Larissa", "Cláudia", "Beatriz", "Josias", "Joana", "Rita", "Sebastião", "Geraldo", "Otávio",
+            "Heloísa"};
+    private static final String[] LAST = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves",
+            "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares",
+            "Fernandes", "Vieira", "Barbosa", "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques",
+            "Machado", "Mendes", "Freitas", "Cardoso", "Ramos", "Gonçalves", "Santana", "Teixeira", "Barreto",
+            "Araújo", "Pinto", "Correia", "Cavalcanti", "Monteiro", "Moura", "Campos", "Batista", "Guimarães",
+            "Magalhães", "Siqueira", "Brandão", "Queiroz", "Figueiredo"};
+
+    @Param({"5000000"})
+    private int persons;
+
+    private PersonNameIndex index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        PersonNameIndex.Postings postings = new PersonNameIndex.Postings();
+        for (int id = 1; id <= persons; id++) {
+            postings.add(id, FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)] + " "
+                    + LAST[random.nextInt(LAST.length)]);
+        }
+        postings.add(persons + 1L, "Josias Barreto Figueiredo");
+        index = new PersonNameIndex();
+        index.load(postings);
+    }
+
+    @Benchmark
+    public List<PersonNameMatchDTO> exactFullName() {
+        return index.search("Josias Barreto Figueiredo", 0.8, 20);
+    }
+
+    @Benchmark
+    public List<PersonNameMatchDTO> withoutAccentsAndTypo() {
+        return index.search("Heloisa Magalhaes Guimaraez", 0.7, 20);
+    }
+
+    @Benchmark
+    public List<PersonNameMatchDTO> commonFirstName() {
+        return index.search("Maria", 0.8, 20);
+    }
+}
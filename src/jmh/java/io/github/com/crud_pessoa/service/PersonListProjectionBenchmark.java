@@ -0,0 +1,77 @@
+package io.github.com.crud_pessoa.service;
+
+import io.github.com.crud_pessoa.Application;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.mapper.PersonMapper;
+import io.github.com.crud_pessoa.repository.PersonRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One list page built from managed entities (the previous getAllPersons: persons and their batch-loaded addresses
+ * hydrated, snapshotted for dirty checking, then mapped) against the projected rows getAllPersons reads now.
+ * Allocation is what this is about, so run it with the GC profiler and compare {@code gc.alloc.rate.norm}:
+ * <pre>mvn -Pbenchmark clean test-compile exec:exec -Djmh.args="PersonListProjectionBenchmark -prof gc"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx3g"})
+public class PersonListProjectionBenchmark {
+    @Param({"100000"})
+    private int rows;
+
+    @Param({"10", "100"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private PersonService service;
+    private PersonRepository repository;
+    private PersonMapper mapper;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        service = context.getBean(PersonService.class);
+        repository = context.getBean(PersonRepository.class);
+        mapper = context.getBean(PersonMapper.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("insert into pessoa (id, nome, data_aniversario, cpf) "
+                + "select x, 'Person ' || x, date '1990-01-01', lpad(x, 11, '0') from system_range(1, ?)", rows);
+        jdbc.update("insert into endereco (id, rua, numero, bairro, cidade, estado, cep, person_id) "
+                + "select x, 'Rua ' || x, '10', 'Centro', 'Campos dos Goytacazes', 'RJ', '28015-000', (x + 1) / 2 from system_range(1, ?)", rows * 2L);
+        jdbc.execute("analyze");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<PersonResponseDTO> entityPage() {
+        return readOnly.execute(status -> repository.findAll(PageRequest.of(0, size)).map(mapper::toDTO));
+    }
+
+    @Benchmark
+    public Page<PersonResponseDTO> projectedPage() {
+        return service.getAllPersons(0, size);
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.com.crud_pessoa.service;
+
+import io.github.com.crud_pessoa.Application;
+import io.github.com.crud_pessoa.dto.CursorPageResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PersonService list paths against the in-memory H2 database, seeded with {@code rows} persons of two addresses each.
+ * Compares OFFSET pagination (plus its count query) with the keyset cursor on the first page and on the last one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx3g"})
+public class PersonServiceBenchmark {
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"10"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private PersonService service;
+    private int lastPage;
+    private String lastPageCursor;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        service = context.getBean(PersonService.class);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("insert into pessoa (id, nome, data_aniversario, cpf) "
+                + "select x, 'Person ' || x, date '1990-01-01', lpad(x, 11, '0') from system_range(1, ?)", rows);
+        jdbc.update("insert into endereco (id, rua, numero, bairro, cidade, estado, cep, person_id) "
+                + "select x, 'Rua ' || x, '10', 'Centro', 'Campos dos Goytacazes', 'RJ', '28015-000', (x + 1) / 2 from system_range(1, ?)", rows * 2L);
+        jdbc.execute("analyze");
+
+        lastPage = rows / size - 1;
+        lastPageCursor = PersonCursor.encode((long) lastPage * size);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<PersonResponseDTO> offsetFirstPage() {
+        return service.getAllPersons(0, size);
+    }
+
+    @Benchmark
+    public Page<PersonResponseDTO> offsetLastPage() {
+        return service.getAllPersons(lastPage, size);
+    }
+
+    @Benchmark
+    public CursorPageResponseDTO<PersonResponseDTO> keysetFirstPage() {
+        return service.getPersonsAfter(null, size);
+    }
+
+    @Benchmark
+    public CursorPageResponseDTO<PersonResponseDTO> keysetLastPage() {
+        return service.getPersonsAfter(lastPageCursor, size);
+    }
+}
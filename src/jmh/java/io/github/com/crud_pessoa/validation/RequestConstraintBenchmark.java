@@ -0,0 +1,70 @@
+package io.github.com.crud_pessoa.validation;
+
+import io.github.com.crud_pessoa.benchmark.BenchmarkData;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.Pattern;
+import org.hibernate.validator.constraints.br.CPF;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPF, state, ZIP code and name checks of a person request, through Hibernate Validator: with the
+ * {@code @CPF} and {@code @Pattern} constraints the request DTOs used before, and with the character-by-character
+ * constraints that replaced them. Run with {@code -prof gc} for the allocation per validation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestConstraintBenchmark {
+
+    public record Before(
+            @CPF(message = "Invalid CPF") String cpf,
+            @Pattern(regexp = "^[A-Z]{2}$", message = "The state must be a valid two-letter abbreviation (e.g., SP, RJ, CA, NY)") String state,
+            @Pattern(regexp = "^[0-9]{5}-[0-9]{3}$|^[0-9]{8}$", message = "The ZIP code must be in the 00000-000 or 00000000 format") String zipCode,
+            @Pattern(regexp = "^[A-Z]+(.)*", message = "The name must start with an uppercase letter and can only contain letters and spaces.") String name) {
+    }
+
+    public record After(
+            @Cpf(message = "Invalid CPF") String cpf,
+            @Uf(message = "The state must be a valid two-letter abbreviation (e.g., SP, RJ, CA, NY)") String state,
+            @Cep(message = "The ZIP code must be in the 00000-000 or 00000000 format") String zipCode,
+            @StartsWithUppercase(message = "The name must start with an uppercase letter and can only contain letters and spaces.") String name) {
+    }
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private Before before;
+    private After after;
+
+    @Setup
+    public void setup() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        String cpf = BenchmarkData.cpf(1);
+        before = new Before(cpf, "RJ", "28143-000", "Josias Barreto");
+        after = new After(cpf, "RJ", "28143-000", "Josias Barreto");
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Before>> regexConstraints() {
+        return validator.validate(before);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<After>> charConstraints() {
+        return validator.validate(after);
+    }
+}
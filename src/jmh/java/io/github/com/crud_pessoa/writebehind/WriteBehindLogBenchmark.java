@@ -0,0 +1,64 @@
+package io.github.com.crud_pessoa.writebehind;
+
+import io.github.com.crud_pessoa.benchmark.BenchmarkData;
+import io.github.com.crud_pessoa.dto.AddressRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * What a {@code Prefer: respond-async} create costs before its 202: encoding the request and appending it to the
+ * write-behind log, from several request threads at once, with and without forcing each record to disk. The log
+ * is drained between iterations, so the segment files do not pile up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class WriteBehindLogBenchmark {
+    @Param({"false", "true"})
+    private boolean fsync;
+
+    private Path directory;
+    private WriteBehindLog log;
+    private PersonRequestDTO person;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("write-behind");
+        log = WriteBehindLog.open(directory, 64 * 1024 * 1024, fsync, 0);
+        person = new PersonRequestDTO("Josias Barreto", LocalDate.of(1994, 9, 24), BenchmarkData.cpf(1),
+                List.of(new AddressRequestDTO(null, "Avenida José Carlos Pereira Pinto", "178-A", "Parque Guarus", "Campos dos Goytacazes", "RJ", "28143-000")));
+    }
+
+    @Benchmark
+    public long submitCreate() {
+        return log.append(PersonWriteCommand.create(person).encode());
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() throws InterruptedException {
+        while (!log.poll(10_000, 0).isEmpty()) {
+            log.release(log.lastSequence());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        log.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+}
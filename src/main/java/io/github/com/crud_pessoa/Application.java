@@ -1,10 +1,16 @@
 package io.github.com.crud_pessoa;
 
+import io.github.com.crud_pessoa.config.NativeRuntimeHints;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 @OpenAPIDefinition(
 		info = @io.swagger.v3.oas.annotations.info.Info(
 				title = "CRUD Person API",
@@ -12,9 +18,14 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 				description = "API for managing people in a CRUD application")
 )
 public class Application {
+	// a few hundred beans, each with its own instantiate step, plus the context and Spring Data phases
+	private static final int STARTUP_STEPS = 4096;
 
 	public static void main(String[] args) {
-		SpringApplication.run(Application.class, args);
+		SpringApplication application = new SpringApplication(Application.class);
+		// recorded steps feed the startup report in the log and GET /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,157 @@
+package io.github.com.crud_pessoa.changes;
+
+import io.github.com.crud_pessoa.dto.PersonChangeDTO;
+import io.github.com.crud_pessoa.exception.ChangeOffsetExpiredException;
+import io.github.com.crud_pessoa.model.PersonChange;
+import io.github.com.crud_pessoa.repository.PersonChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of the published person changes to the clients of the change stream. The most recent changes
+ * stay in memory, so a client that reconnects shortly after dropping resumes without touching the database; one
+ * further behind first replays from the outbox table, in pages, and then joins the live stream.
+ *
+ * <p>Every client gets its own queue, emptied by a sender thread, so a slow client never holds up the publisher or
+ * the others. A client whose queue overflows is disconnected and resumes from its last event.
+ */
+@Component
+public class PersonChangeBus {
+    private static final int REPLAY_PAGE = 1000;
+
+    private final PersonChangeRepository repository;
+    private final int bufferSize;
+    private final int maxPending;
+    private final Deque<PersonChangeDTO> recent = new ArrayDeque<>();
+    private final Set<PersonChangeSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newCachedThreadPool(daemonThreads());
+    private final Counter disconnected;
+    private long lastOffset;
+
+    public PersonChangeBus(PersonChangeRepository repository, MeterRegistry registry,
+                           @Value("${person.changes.buffer-size:10000}") int bufferSize,
+                           @Value("${person.changes.max-pending:10000}") int maxPending) {
+        this.repository = repository;
+        this.bufferSize = bufferSize;
+        this.maxPending = maxPending;
+        Gauge.builder("person.changes.subscribers", subscribers, Set::size)
+                .description("Clients connected to the change stream")
+                .register(registry);
+        this.disconnected = Counter.builder("person.changes.slow-subscribers")
+                .description("Change stream clients disconnected for falling too far behind")
+                .register(registry);
+    }
+
+    synchronized void start(long lastOffset) {
+        this.lastOffset = lastOffset;
+    }
+
+    synchronized void publish(List<PersonChangeDTO> changes) {
+        for (PersonChangeDTO change : changes) {
+            if (recent.size() == bufferSize) {
+                recent.removeFirst();
+            }
+            recent.addLast(change);
+        }
+        lastOffset = changes.get(changes.size() - 1).offset();
+        subscribers.forEach(subscriber -> subscriber.offer(changes));
+    }
+
+    /**
+     * Opens a stream of the changes after offset {@code after}, or of the changes from now on when it is null.
+     * Fails right away, before anything is streamed, when the changes right after {@code after} were already pruned.
+     */
+    public SseEmitter subscribe(Long after) {
+        long current = lastOffset();
+        long position = after != null ? after : current;
+        if (position < current) {
+            Long oldest = repository.findMinOffset();
+            if (oldest == null || oldest > position + 1) {
+                throw new ChangeOffsetExpiredException("Changes after offset " + position + " are no longer available; start over from the current state.");
+            }
+        }
+        PersonChangeSubscriber subscriber = new PersonChangeSubscriber(this, senders, maxPending, position);
+        subscriber.start();
+        return subscriber.emitter();
+    }
+
+    /**
+     * The next page of changes after {@code position} for a subscriber still replaying, or an empty list once it
+     * has caught up: from then on it is live, and it was already handed the buffered changes after its position.
+     */
+    List<PersonChangeDTO> replay(PersonChangeSubscriber subscriber, long position) {
+        synchronized (this) {
+            if (position >= lastOffset || (!recent.isEmpty() && position >= recent.getFirst().offset() - 1)) {
+                List<PersonChangeDTO> missed = new ArrayList<>();
+                for (PersonChangeDTO change : recent) {
+                    if (change.offset() > position) {
+                        missed.add(change);
+                    }
+                }
+                subscribers.add(subscriber);
+                if (!missed.isEmpty()) {
+                    subscriber.offer(missed);
+                }
+                return List.of();
+            }
+        }
+        List<PersonChange> page = repository.findByOffsetGreaterThanOrderByOffset(position, Limit.of(REPLAY_PAGE));
+        if (page.isEmpty() || page.get(0).getOffset() != position + 1) {
+            throw new ChangeOffsetExpiredException("Changes after offset " + position + " were pruned during the replay.");
+        }
+        return page.stream().map(PersonChangeBus::toDTO).toList();
+    }
+
+    static PersonChangeDTO toDTO(PersonChange change) {
+        return new PersonChangeDTO(change.getOffset(), change.getType().name(), change.getPersonId(), change.getChangedAt());
+    }
+
+    void remove(PersonChangeSubscriber subscriber, boolean slow) {
+        if (subscribers.remove(subscriber) && slow) {
+            disconnected.increment();
+        }
+    }
+
+    private synchronized long lastOffset() {
+        return lastOffset;
+    }
+
+    // Keeps idle connections open through proxies, and finds the clients that went away without a word.
+    @Scheduled(fixedDelayString = "${person.changes.heartbeat-ms:15000}")
+    void heartbeat() {
+        subscribers.forEach(PersonChangeSubscriber::ping);
+    }
+
+    @PreDestroy
+    void stop() {
+        List.copyOf(subscribers).forEach(PersonChangeSubscriber::close);
+        senders.shutdownNow();
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "person-changes-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.com.crud_pessoa.changes;
+
+import io.github.com.crud_pessoa.model.PersonChange;
+import io.github.com.crud_pessoa.repository.PersonChangeRepository;
+import io.github.com.crud_pessoa.service.PersonChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records every person change in the outbox table. A plain (not transactional) listener runs while the service
+ * method is still inside its transaction, so the row commits or rolls back together with the change itself.
+ */
+@Component
+public class PersonChangeOutbox {
+    private final PersonChangeRepository repository;
+
+    public PersonChangeOutbox(PersonChangeRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener
+    public void onPersonChanged(PersonChangedEvent event) {
+        repository.save(new PersonChange(typeOf(event), event.id()));
+    }
+
+    private static PersonChange.Type typeOf(PersonChangedEvent event) {
+        if (event.previous() == null) {
+            return PersonChange.Type.CREATED;
+        }
+        return event.current() == null ? PersonChange.Type.DELETED : PersonChange.Type.UPDATED;
+    }
+}
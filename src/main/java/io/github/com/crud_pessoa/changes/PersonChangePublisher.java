@@ -0,0 +1,108 @@
+package io.github.com.crud_pessoa.changes;
+
+import io.github.com.crud_pessoa.dto.PersonChangeDTO;
+import io.github.com.crud_pessoa.model.PersonChange;
+import io.github.com.crud_pessoa.repository.PersonChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The single reader of the outbox. Each run first numbers the unpublished changes, in insertion order, after the
+ * highest offset in the table, and commits; then it reads the numbered changes after the last one it published, in
+ * offset order, and hands them to the {@link PersonChangeBus}. Every offset a client sees can thus be read back
+ * from the table, and changes numbered but not yet handed over when the process stops are picked up after the
+ * restart. Eager even with lazy initialization, since nothing else would create it.
+ *
+ * <p>Should a second instance share the database, the unique offset lets only one of them number a change: the
+ * other's transaction fails and its next run finds the change numbered, and publishes it all the same.
+ */
+@Component
+@Lazy(false)
+public class PersonChangePublisher {
+    private static final Logger log = LoggerFactory.getLogger(PersonChangePublisher.class);
+
+    private final PersonChangeRepository repository;
+    private final PersonChangeBus bus;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final Duration retention;
+    private final Counter published;
+    private long lastOffset;
+
+    public PersonChangePublisher(PersonChangeRepository repository, PersonChangeBus bus, TransactionTemplate transactionTemplate,
+                                 MeterRegistry registry,
+                                 @Value("${person.changes.batch-size:500}") int batchSize,
+                                 @Value("${person.changes.retention:7d}") Duration retention) {
+        this.repository = repository;
+        this.bus = bus;
+        this.transaction = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.published = Counter.builder("person.changes.published")
+                .description("Person changes read from the outbox and published to the change stream")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        lastOffset = Objects.requireNonNullElse(repository.findMaxOffset(), 0L);
+        bus.start(lastOffset);
+    }
+
+    @Scheduled(fixedDelayString = "${person.changes.poll-interval-ms:200}")
+    public void publish() {
+        int numbered;
+        do {
+            numbered = number();
+            List<PersonChangeDTO> changes;
+            do {
+                changes = repository.findByOffsetGreaterThanOrderByOffset(lastOffset, Limit.of(batchSize)).stream()
+                        .map(PersonChangeBus::toDTO)
+                        .toList();
+                if (!changes.isEmpty()) {
+                    lastOffset = changes.get(changes.size() - 1).offset();
+                    bus.publish(changes);
+                    published.increment(changes.size());
+                }
+            } while (changes.size() == batchSize);
+        } while (numbered == batchSize);
+    }
+
+    private int number() {
+        try {
+            return Objects.requireNonNull(transaction.execute(status -> {
+                List<PersonChange> unpublished = repository.findByOffsetIsNullOrderById(Limit.of(batchSize));
+                if (!unpublished.isEmpty()) {
+                    long offset = Objects.requireNonNullElse(repository.findMaxOffset(), 0L);
+                    for (PersonChange change : unpublished) {
+                        change.setOffset(++offset);
+                    }
+                }
+                return unpublished.size();
+            }));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Another publisher numbered the pending person changes first", e);
+            return 0;
+        }
+    }
+
+    @Scheduled(cron = "${person.changes.prune-cron:0 45 3 * * *}")
+    void prune() {
+        repository.deletePublishedBefore(Instant.now().minus(retention));
+    }
+}
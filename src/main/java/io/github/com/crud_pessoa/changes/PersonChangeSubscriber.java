@@ -0,0 +1,181 @@
+package io.github.com.crud_pessoa.changes;
+
+import io.github.com.crud_pessoa.dto.PersonChangeDTO;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * One client of the change stream. It first replays what it missed, on a sender thread, then receives the live
+ * changes through {@link #offer}, which only queues them; at most one sender thread writes to the client at a
+ * time, so events leave in offset order.
+ */
+final class PersonChangeSubscriber {
+    private final PersonChangeBus bus;
+    private final Executor senders;
+    private final int maxPending;
+    // no timeout: the heartbeats find the clients that are gone
+    private final SseEmitter emitter = new SseEmitter(0L);
+    private final Deque<PersonChangeDTO> pending = new ArrayDeque<>();
+    private long position;
+    private boolean sending;
+    private boolean ping;
+    private boolean closed;
+
+    PersonChangeSubscriber(PersonChangeBus bus, Executor senders, int maxPending, long position) {
+        this.bus = bus;
+        this.senders = senders;
+        this.maxPending = maxPending;
+        this.position = position;
+        emitter.onCompletion(this::forget);
+        emitter.onTimeout(this::forget);
+        emitter.onError(e -> forget());
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    void start() {
+        try {
+            // sent before the response starts, this goes out with its headers instead of waiting for the first change
+            emitter.send(SseEmitter.event().comment("after " + position));
+        } catch (IOException e) {
+            forget();
+            return;
+        }
+        synchronized (this) {
+            sending = true;
+        }
+        execute(this::replay);
+    }
+
+    private void replay() {
+        try {
+            for (List<PersonChangeDTO> page = bus.replay(this, position()); !page.isEmpty(); page = bus.replay(this, position())) {
+                for (PersonChangeDTO change : page) {
+                    send(change);
+                }
+                synchronized (this) {
+                    position = page.get(page.size() - 1).offset();
+                }
+            }
+        } catch (IOException e) {
+            forget();
+            return;
+        } catch (RuntimeException e) {
+            if (forget()) {
+                emitter.completeWithError(e);
+            }
+            return;
+        }
+        drain();
+    }
+
+    /**
+     * Queues the changes this client has not had yet. Changes it already replayed from the table may come again
+     * from the bus, and are skipped by offset.
+     */
+    synchronized void offer(List<PersonChangeDTO> changes) {
+        if (closed) {
+            return;
+        }
+        for (PersonChangeDTO change : changes) {
+            if (change.offset() > position) {
+                pending.addLast(change);
+                position = change.offset();
+            }
+        }
+        if (pending.size() > maxPending) {
+            // it resumes from the last event it got, replaying from the table at its own pace
+            closed = true;
+            bus.remove(this, true);
+            emitter.complete();
+            return;
+        }
+        schedule();
+    }
+
+    synchronized void ping() {
+        ping = true;
+        schedule();
+    }
+
+    void close() {
+        if (forget()) {
+            emitter.complete();
+        }
+    }
+
+    // whether this call is the one that closed it
+    private boolean forget() {
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+        }
+        bus.remove(this, false);
+        return true;
+    }
+
+    private synchronized long position() {
+        return position;
+    }
+
+    private void schedule() {
+        if (!sending && !closed) {
+            sending = true;
+            execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            List<PersonChangeDTO> batch;
+            boolean heartbeat;
+            synchronized (this) {
+                if (closed || (pending.isEmpty() && !ping)) {
+                    sending = false;
+                    return;
+                }
+                batch = new ArrayList<>(pending);
+                pending.clear();
+                heartbeat = ping && batch.isEmpty();
+                ping = false;
+            }
+            try {
+                if (heartbeat) {
+                    emitter.send(SseEmitter.event().comment(""));
+                }
+                for (PersonChangeDTO change : batch) {
+                    send(change);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client is gone; the container completes the response itself
+                forget();
+                return;
+            }
+        }
+    }
+
+    private void send(PersonChangeDTO change) throws IOException {
+        emitter.send(SseEmitter.event().id(String.valueOf(change.offset())).data(change, MediaType.APPLICATION_JSON));
+    }
+
+    private void execute(Runnable task) {
+        try {
+            senders.execute(task);
+        } catch (RejectedExecutionException e) {
+            // shutting down
+            close();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.com.crud_pessoa.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String PERSONS = "persons";
+}
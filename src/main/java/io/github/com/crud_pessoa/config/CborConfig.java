@@ -0,0 +1,22 @@
+package io.github.com.crud_pessoa.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Serves {@code application/cbor} to clients that ask for it in {@code Accept}; JSON stays the default.
+ * Spring MVC would register a CBOR converter on its own once the dataformat is on the classpath, but with a plain
+ * mapper: this one is built from Boot's {@link Jackson2ObjectMapperBuilder}, so {@code spring.jackson.*} applies and
+ * both formats carry the same fields (dates as ISO strings rather than arrays, for instance).
+ */
+@Configuration
+public class CborConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
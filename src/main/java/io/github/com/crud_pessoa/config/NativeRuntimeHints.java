@@ -0,0 +1,86 @@
+package io.github.com.crud_pessoa.config;
+
+import io.github.com.crud_pessoa.dto.AddressRequestDTO;
+import io.github.com.crud_pessoa.dto.AddressResponseDTO;
+import io.github.com.crud_pessoa.dto.CursorPageResponseDTO;
+import io.github.com.crud_pessoa.dto.ImportRejectionDTO;
+import io.github.com.crud_pessoa.dto.ImportSummaryDTO;
+import io.github.com.crud_pessoa.dto.PersonBatchItemResultDTO;
+import io.github.com.crud_pessoa.dto.PersonChangeDTO;
+import io.github.com.crud_pessoa.dto.PersonNameMatchDTO;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonSearchFilterDTO;
+import io.github.com.crud_pessoa.metrics.EntityLoadCounter;
+import io.github.com.crud_pessoa.metrics.SqlStatementCounter;
+import io.github.com.crud_pessoa.model.Address;
+import io.github.com.crud_pessoa.model.Person;
+import io.github.com.crud_pessoa.model.PersonChange;
+import io.github.com.crud_pessoa.model.PersonWrite;
+import io.github.com.crud_pessoa.repository.projection.AddressRow;
+import io.github.com.crud_pessoa.repository.projection.BirthDateCount;
+import io.github.com.crud_pessoa.repository.projection.BirthDateStateCount;
+import io.github.com.crud_pessoa.repository.projection.PersonAgeRow;
+import io.github.com.crud_pessoa.repository.projection.PersonNameRow;
+import io.github.com.crud_pessoa.repository.projection.PersonRow;
+import io.github.com.crud_pessoa.validation.Cep;
+import io.github.com.crud_pessoa.validation.CepValidator;
+import io.github.com.crud_pessoa.validation.Cpf;
+import io.github.com.crud_pessoa.validation.CpfValidator;
+import io.github.com.crud_pessoa.validation.StartsWithUppercase;
+import io.github.com.crud_pessoa.validation.StartsWithUppercaseValidator;
+import io.github.com.crud_pessoa.validation.Uf;
+import io.github.com.crud_pessoa.validation.UfValidator;
+import io.github.com.crud_pessoa.writebehind.PersonWriteCommand;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reachability metadata the AOT engine cannot infer for a native image.
+ *
+ * <ul>
+ *   <li>DTOs that Jackson reads or writes outside controller signatures: the import and patch paths, the
+ *   streamed export, the write-behind log entries and the change stream events.</li>
+ *   <li>Projection records that Hibernate instantiates from {@code select new} and criteria {@code construct}.</li>
+ *   <li>The statement inspector, which Hibernate creates from its class name.</li>
+ *   <li>The entities, for Hibernate's reflective access beyond the managed types Spring registers.</li>
+ *   <li>The request constraints and their validators, which Hibernate Validator looks up by reflection.</li>
+ * </ul>
+ *
+ * <p>springdoc ships its own hints.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+    private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindings.registerReflectionHints(hints.reflection(),
+                PersonRequestDTO.class, AddressRequestDTO.class, PersonResponseDTO.class, AddressResponseDTO.class,
+                CursorPageResponseDTO.class, PersonBatchItemResultDTO.class, PersonSearchFilterDTO.class,
+                PersonNameMatchDTO.class, ImportSummaryDTO.class, ImportRejectionDTO.class,
+                PersonWriteCommand.class, PersonChangeDTO.class);
+
+        for (Class<?> projection : new Class<?>[]{PersonRow.class, AddressRow.class, PersonNameRow.class, PersonAgeRow.class,
+                BirthDateCount.class, BirthDateStateCount.class}) {
+            hints.reflection().registerType(projection, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        hints.reflection().registerType(SqlStatementCounter.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(EntityLoadCounter.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        for (Class<?> entity : new Class<?>[]{Person.class, Address.class, PersonWrite.class, PersonChange.class}) {
+            hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        for (Class<?> constraint : new Class<?>[]{Cpf.class, Uf.class, Cep.class, StartsWithUppercase.class}) {
+            hints.reflection().registerType(constraint, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        for (Class<?> validator : new Class<?>[]{CpfValidator.class, UfValidator.class, CepValidator.class,
+                StartsWithUppercaseValidator.class}) {
+            hints.reflection().registerType(validator, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
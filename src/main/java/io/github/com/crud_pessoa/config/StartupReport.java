@@ -0,0 +1,78 @@
+package io.github.com.crud_pessoa.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logs where the startup time went once the application is ready: the context refresh and the beans that took
+ * longest to create. A bean's time is its own, without the dependencies created while it was being instantiated,
+ * so the entity manager factory is not blamed for the datasource it waited on.
+ *
+ * <p>Only runs when the application was started through {@code Application.main}, which records the steps; the same
+ * timeline is served by {@code GET /actuator/startup}.
+ */
+@Component
+public class StartupReport {
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+    private static final String BEAN_STEP = "spring.beans.instantiate";
+    private static final String REFRESH_STEP = "spring.context.refresh";
+
+    private final int top;
+
+    public StartupReport(@Value("${startup.report.top:15}") int top) {
+        this.top = top;
+    }
+
+    @EventListener
+    public void report(ApplicationReadyEvent event) {
+        if (top <= 0 || !(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+
+        Map<Long, Duration> self = new HashMap<>();
+        for (StartupTimeline.TimelineEvent step : events) {
+            self.merge(step.getStartupStep().getId(), step.getDuration(), Duration::plus);
+            Long parent = step.getStartupStep().getParentId();
+            if (parent != null) {
+                self.merge(parent, step.getDuration().negated(), Duration::plus);
+            }
+        }
+
+        StringBuilder report = new StringBuilder("Started in ").append(event.getTimeTaken().toMillis()).append(" ms");
+        events.stream()
+                .filter(step -> REFRESH_STEP.equals(step.getStartupStep().getName()))
+                .findFirst()
+                .ifPresent(step -> report.append(" (context refresh ").append(step.getDuration().toMillis()).append(" ms)"));
+        report.append("; slowest beans, excluding their dependencies:");
+        events.stream()
+                .filter(step -> BEAN_STEP.equals(step.getStartupStep().getName()))
+                .sorted(Comparator.comparing((StartupTimeline.TimelineEvent step) -> self.get(step.getStartupStep().getId())).reversed())
+                .limit(top)
+                .forEach(step -> report.append(System.lineSeparator()).append(String.format("%8d ms  %s",
+                        self.get(step.getStartupStep().getId()).toMillis(), beanName(step.getStartupStep()))));
+        log.info(report.toString());
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
@@ -1,36 +1,128 @@
 package io.github.com.crud_pessoa.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.com.crud_pessoa.changes.PersonChangeBus;
 import io.github.com.crud_pessoa.controller.docs.PersonControllerDocs;
+import io.github.com.crud_pessoa.dto.AgeDistributionDTO;
+import io.github.com.crud_pessoa.dto.CursorPageResponseDTO;
+import io.github.com.crud_pessoa.dto.ImportSummaryDTO;
+import io.github.com.crud_pessoa.dto.PersonBatchItemResultDTO;
+import io.github.com.crud_pessoa.dto.PersonNameMatchDTO;
 import io.github.com.crud_pessoa.dto.PersonRequestDTO;
 import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonSearchFilterDTO;
+import io.github.com.crud_pessoa.dto.PersonWriteStatusDTO;
+import io.github.com.crud_pessoa.dto.StateAgeDistributionDTO;
+import io.github.com.crud_pessoa.exception.ResourceNotFoundException;
+import io.github.com.crud_pessoa.service.IdempotencyStore;
+import io.github.com.crud_pessoa.service.PersonImportService;
 import io.github.com.crud_pessoa.service.PersonService;
+import io.github.com.crud_pessoa.stats.PersonAgeStats;
+import io.github.com.crud_pessoa.writebehind.PersonWriteBehind;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 public class PersonController implements PersonControllerDocs {
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    static final String RESPOND_ASYNC = "respond-async";
+
     PersonService service;
+    PersonImportService importService;
+    IdempotencyStore idempotencyStore;
+    PersonAgeStats ageStats;
+    ObjectMapper objectMapper;
+    ObjectProvider<PersonWriteBehind> writeBehind;
+    PersonChangeBus changeBus;
 
-    public PersonController(PersonService service) {
+    public PersonController(PersonService service, PersonImportService importService, IdempotencyStore idempotencyStore,
+                            PersonAgeStats ageStats, ObjectMapper objectMapper, ObjectProvider<PersonWriteBehind> writeBehind,
+                            PersonChangeBus changeBus) {
         this.service = service;
+        this.importService = importService;
+        this.idempotencyStore = idempotencyStore;
+        this.ageStats = ageStats;
+        this.objectMapper = objectMapper;
+        this.writeBehind = writeBehind;
+        this.changeBus = changeBus;
+    }
+
+    @Override
+    public ResponseEntity<PersonResponseDTO> createPerson(@RequestBody @Valid PersonRequestDTO requestDTO, @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                                          @RequestHeader(value = PREFER, required = false) String prefer){
+        // an idempotent create must answer a retry with the person, which a background write does not have yet
+        PersonWriteBehind async = idempotencyKey == null ? asyncWrites(prefer) : null;
+        if (async != null) {
+            return accepted(async.submitCreate(requestDTO));
+        }
+        if (idempotencyKey == null) {
+            PersonResponseDTO salvedPerson =  service.savePerson(requestDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(PersonETag.of(salvedPerson.version())).body(salvedPerson);
+        }
+        IdempotencyStore.Outcome outcome = idempotencyStore.create(idempotencyKey, requestDTO, () -> service.savePerson(requestDTO));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(PersonETag.of(outcome.response().version()))
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(outcome.replayed()))
+                .body(outcome.response());
     }
 
     @Override
-    public ResponseEntity<PersonResponseDTO> createPerson(@RequestBody @Valid PersonRequestDTO requestDTO){
-        PersonResponseDTO salvedPerson =  service.savePerson(requestDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(salvedPerson);
+    public ResponseEntity<List<PersonBatchItemResultDTO>> createPersons(@RequestBody List<PersonRequestDTO> requestDTOs) {
+        List<PersonBatchItemResultDTO> results = service.savePersons(requestDTOs);
+        boolean allCreated = results.stream().allMatch(r -> r.status() == HttpStatus.CREATED.value());
+        return ResponseEntity.status(allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(results);
+    }
+
+    @Override
+    public ResponseEntity<ImportSummaryDTO> importPersons(HttpServletRequest request) throws IOException {
+        var format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? PersonImportService.Format.CSV
+                : PersonImportService.Format.NDJSON;
+        // default to UTF-8 instead of the servlet's ISO-8859-1 when the client sends no charset
+        Charset charset = request.getCharacterEncoding() != null ? Charset.forName(request.getCharacterEncoding()) : StandardCharsets.UTF_8;
+        ImportSummaryDTO summary = importService.importPersons(new InputStreamReader(request.getInputStream(), charset), format);
+        return ResponseEntity.ok(summary);
     }
 
    @Override
-    public ResponseEntity<PersonResponseDTO> getPersonById(@PathVariable Long id) {
+    public ResponseEntity<PersonResponseDTO> getPersonById(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // a revalidating client costs one version lookup: nothing is loaded, mapped or serialized
+        if (ifNoneMatch != null) {
+            long version = service.getPersonVersion(id);
+            if (PersonETag.matchesAny(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(PersonETag.of(version)).build();
+            }
+        }
         PersonResponseDTO person = service.getPersonById(id);
-        return ResponseEntity.ok(person);
+        return ResponseEntity.ok().eTag(PersonETag.of(person.version())).body(person);
     }
 
     @Override
@@ -40,6 +132,50 @@ public class PersonController implements PersonControllerDocs {
         return ResponseEntity.ok(persons);
     }
 
+    @Override
+    public ResponseEntity<CursorPageResponseDTO<PersonResponseDTO>> listPersonsByCursor(@RequestParam(required = false) String after, @RequestParam(defaultValue = "10") int size) {
+        CursorPageResponseDTO<PersonResponseDTO> persons = service.getPersonsAfter(after, size);
+        return ResponseEntity.ok(persons);
+    }
+
+    @Override
+    public ResponseEntity<CursorPageResponseDTO<PersonResponseDTO>> searchPersons(PersonSearchFilterDTO filter, @RequestParam(required = false) String after, @RequestParam(defaultValue = "10") int size) {
+        CursorPageResponseDTO<PersonResponseDTO> persons = service.searchPersons(filter, after, size);
+        return ResponseEntity.ok(persons);
+    }
+
+    @Override
+    public ResponseEntity<List<PersonNameMatchDTO>> searchPersonsByName(@RequestParam String q, @RequestParam(defaultValue = "0.5") double minScore, @RequestParam(defaultValue = "20") int limit) {
+        List<PersonNameMatchDTO> matches = service.searchByName(q, minScore, limit);
+        return ResponseEntity.ok(matches);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportPersons(HttpServletRequest request) {
+        // the stream lasts as long as the table takes to read, so the async request timeout (the container's 30 s
+        // unless configured) would cut it off after the 200 went out; 0 disables it for this request only
+        AsyncWebRequest asyncRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (asyncRequest != null) {
+            asyncRequest.setTimeout(0L);
+        }
+        ObjectWriter writer = objectMapper.writerFor(PersonResponseDTO.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = out -> service.exportPersons(person -> {
+            try {
+                writer.writeValue(out, person);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    @Override
+    public SseEmitter streamChanges(@RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId, @RequestParam(required = false) Long after) {
+        // an EventSource reconnects to the same URL, so the header it adds wins over the original query
+        return changeBus.subscribe(lastEventId != null ? lastEventId : after);
+    }
+
     @Override
     public ResponseEntity<Void> deletePerson(@PathVariable Long id) {
         service.deletePerson(id);
@@ -47,9 +183,60 @@ public class PersonController implements PersonControllerDocs {
     }
 
     @Override
-    public ResponseEntity<PersonResponseDTO> updatePerson(@RequestBody @Valid PersonRequestDTO requestDTO, @PathVariable Long id) {
-        PersonResponseDTO updatedPerson = service.updatePerson(requestDTO, id);
-        return ResponseEntity.ok(updatedPerson);
+    public ResponseEntity<PersonResponseDTO> updatePerson(@RequestBody @Valid PersonRequestDTO requestDTO, @PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                          @RequestHeader(value = PREFER, required = false) String prefer) {
+        Long expectedVersion = PersonETag.expectedVersion(ifMatch);
+        PersonWriteBehind async = asyncWrites(prefer);
+        if (async != null) {
+            return accepted(async.submitUpdate(requestDTO, id, expectedVersion));
+        }
+        PersonResponseDTO updatedPerson = service.updatePerson(requestDTO, id, expectedVersion);
+        return ResponseEntity.ok().eTag(PersonETag.of(updatedPerson.version())).body(updatedPerson);
+    }
+
+    @Override
+    public ResponseEntity<PersonResponseDTO> patchPerson(@RequestBody JsonNode patch, @PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PersonResponseDTO patchedPerson = service.patchPerson(patch, id, PersonETag.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(PersonETag.of(patchedPerson.version())).body(patchedPerson);
+    }
+
+    @Override
+    public ResponseEntity<PersonWriteStatusDTO> getWriteStatus(@PathVariable Long id) {
+        PersonWriteBehind async = writeBehind.getIfAvailable();
+        if (async == null) {
+            throw new ResourceNotFoundException("Write with ID " + id + " not found.");
+        }
+        return ResponseEntity.ok(async.getStatus(id));
+    }
+
+    // The write-behind service, if it is enabled and the client asked for an asynchronous answer (RFC 7240).
+    private PersonWriteBehind asyncWrites(String prefer) {
+        if (prefer == null) {
+            return null;
+        }
+        for (String preference : prefer.split(",")) {
+            if (preference.split(";", 2)[0].trim().equalsIgnoreCase(RESPOND_ASYNC)) {
+                return writeBehind.getIfAvailable();
+            }
+        }
+        return null;
+    }
+
+    private static <T> ResponseEntity<T> accepted(long writeId) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/person/writes/" + writeId))
+                .header("Preference-Applied", RESPOND_ASYNC)
+                .build();
+    }
+
+    @Override
+    public ResponseEntity<AgeDistributionDTO> getAgeDistribution() {
+        return ResponseEntity.ok(ageStats.ageDistribution(LocalDate.now()));
+    }
+
+    @Override
+    public ResponseEntity<List<StateAgeDistributionDTO>> getStatsByState() {
+        return ResponseEntity.ok(ageStats.byState(LocalDate.now()));
     }
 
     @Override
@@ -0,0 +1,53 @@
+package io.github.com.crud_pessoa.controller;
+
+import io.github.com.crud_pessoa.exception.PreconditionFailedException;
+import io.github.com.crud_pessoa.exception.PreconditionRequiredException;
+
+/**
+ * Strong entity tags for persons. The tag is the JPA version in quotes, so it changes with every write and can be
+ * checked against the database without building the representation.
+ */
+final class PersonETag {
+    private PersonETag() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Whether an If-None-Match header matches the version. The comparison is weak, so {@code W/"3"} matches too.
+     */
+    static boolean matchesAny(String ifNoneMatch, long version) {
+        String tag = of(version);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(tag) || trimmed.equals("W/" + tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Version an If-Match header requires, or {@code null} for {@code *} (any current version). Weak tags never pass
+     * If-Match's strong comparison, and tag lists are not accepted: both fail the precondition.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null) {
+            throw new PreconditionRequiredException("Send the person's ETag in If-Match to update it.");
+        }
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return null;
+        }
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // not a tag issued by this API, so it cannot match
+            }
+        }
+        throw new PreconditionFailedException("If-Match must be a single strong ETag returned by this API, or *.");
+    }
+}
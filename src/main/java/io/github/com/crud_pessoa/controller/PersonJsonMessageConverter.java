@@ -0,0 +1,106 @@
+package io.github.com.crud_pessoa.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.service.PersonChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes a single person as JSON from the bytes of an earlier response with the same id and version, so a repeated
+ * read of an unchanged person costs a cache lookup and one write to the response stream, instead of a Jackson pass
+ * over the whole representation. The version goes up with every write, addresses included, so bytes cached for an
+ * older version are never served; committed writes also drop the entry, to free its memory early.
+ *
+ * <p>Boot puts converter beans ahead of its own, so this one answers {@code application/json} for
+ * {@link PersonResponseDTO} bodies (reads by id, and the responses of creates and updates, which warm the cache for
+ * the next read); lists, pages and CBOR still go through Jackson's converters. It never reads request bodies.
+ * The bytes are looked up once per write, and their length is sent as Content-Length.
+ */
+@Component
+public class PersonJsonMessageConverter implements HttpMessageConverter<PersonResponseDTO> {
+    private record Entry(long version, byte[] json) {
+    }
+
+    private final ObjectWriter writer;
+    private final Cache<Long, Entry> cache;
+
+    public PersonJsonMessageConverter(ObjectMapper objectMapper, MeterRegistry registry,
+                                      @Value("${person.json-cache.max-size:32MB}") DataSize maxSize) {
+        this.writer = objectMapper.writerFor(PersonResponseDTO.class);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Long id, Entry entry) -> entry.json().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "personJson");
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return PersonResponseDTO.class == clazz && (mediaType == null || MediaType.APPLICATION_JSON.isCompatibleWith(mediaType));
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return List.of(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    public PersonResponseDTO read(Class<? extends PersonResponseDTO> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Person responses are written by this converter, never read", inputMessage);
+    }
+
+    @Override
+    public void write(PersonResponseDTO person, MediaType contentType, HttpOutputMessage outputMessage) throws IOException {
+        byte[] json = json(person);
+        HttpHeaders headers = outputMessage.getHeaders();
+        if (headers.getContentType() == null) {
+            headers.setContentType(contentType == null || !contentType.isConcrete() ? MediaType.APPLICATION_JSON : contentType);
+        }
+        if (headers.getContentLength() < 0 && !headers.containsKey(HttpHeaders.TRANSFER_ENCODING)) {
+            headers.setContentLength(json.length);
+        }
+        outputMessage.getBody().write(json);
+        outputMessage.getBody().flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        cache.invalidate(event.id());
+    }
+
+    private byte[] json(PersonResponseDTO person) throws IOException {
+        if (person.id() == null || person.version() == null) {
+            return writer.writeValueAsBytes(person);
+        }
+        Entry cached = cache.getIfPresent(person.id());
+        if (cached != null && cached.version() == person.version()) {
+            return cached.json();
+        }
+        byte[] json = writer.writeValueAsBytes(person);
+        cache.put(person.id(), new Entry(person.version(), json));
+        return json;
+    }
+}
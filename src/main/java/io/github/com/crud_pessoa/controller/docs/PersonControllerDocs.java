@@ -1,39 +1,86 @@
 package io.github.com.crud_pessoa.controller.docs;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.com.crud_pessoa.dto.AgeDistributionDTO;
+import io.github.com.crud_pessoa.dto.CursorPageResponseDTO;
+import io.github.com.crud_pessoa.dto.ImportSummaryDTO;
+import io.github.com.crud_pessoa.dto.PersonBatchItemResultDTO;
+import io.github.com.crud_pessoa.dto.PersonNameMatchDTO;
 import io.github.com.crud_pessoa.dto.PersonRequestDTO;
 import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonSearchFilterDTO;
+import io.github.com.crud_pessoa.dto.PersonWriteStatusDTO;
+import io.github.com.crud_pessoa.dto.StateAgeDistributionDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
 
 @RequestMapping("/person")
 @Tag(name = "API Person", description = "Endpoints for managing persons")
 public interface PersonControllerDocs {
-    @Operation(summary = "Create a new person with one or more addresses", method = "POST")
+    String IDEMPOTENCY_KEY = "Idempotency-Key";
+    String PREFER = "Prefer";
+    String LAST_EVENT_ID = "Last-Event-ID";
+
+    @Operation(summary = "Create a new person with one or more addresses", method = "POST",
+            description = "With an Idempotency-Key, a retry of the same request replays the original response instead of creating the person again. "
+                    + "With Prefer: respond-async and write-behind enabled, the person is created in the background; the Location header points to the status of the write")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Person created successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid request data"),
+            @ApiResponse(responseCode = "201", description = "Person created successfully, or the original response replayed for a known Idempotency-Key"),
+            @ApiResponse(responseCode = "202", description = "Accepted for a background write"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or Idempotency-Key"),
             @ApiResponse(responseCode = "409", description = "Person already exists"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used with a different request body"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+    })
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<PersonResponseDTO> createPerson(@RequestBody @Valid PersonRequestDTO requestDTO, @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey, @RequestHeader(value = PREFER, required = false) String prefer);
+
+
+    @Operation(summary = "Create many persons at once, reporting the result of each item", method = "POST")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "All persons created successfully"),
+            @ApiResponse(responseCode = "207", description = "Some persons were rejected, see the status of each item"),
+            @ApiResponse(responseCode = "400", description = "Malformed request body"),
             @ApiResponse(responseCode = "500", description = "Internal server error"),
     })
-    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<PersonResponseDTO> createPerson(@RequestBody @Valid PersonRequestDTO requestDTO);
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<List<PersonBatchItemResultDTO>> createPersons(@RequestBody List<PersonRequestDTO> requestDTOs);
 
 
-    @Operation(summary = "Get a person by ID", method = "GET")
+    @Operation(summary = "Import persons from a streamed NDJSON or CSV body, reporting rejected rows by line number", method = "POST")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed, see the accepted and rejected counts"),
+            @ApiResponse(responseCode = "415", description = "Unsupported content type"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+    })
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"}, produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<ImportSummaryDTO> importPersons(HttpServletRequest request) throws IOException;
+
+
+    @Operation(summary = "Get a person by ID; the response carries its version as ETag", method = "GET")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Person found"),
+            @ApiResponse(responseCode = "304", description = "The ETag sent in If-None-Match is still current"),
             @ApiResponse(responseCode = "404", description = "Person not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error"),
     })
-    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<PersonResponseDTO> getPersonById(@PathVariable Long id);
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<PersonResponseDTO> getPersonById(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
 
 
     @Operation(summary = "List all persons with pagination", method = "GET")
@@ -41,30 +88,129 @@ public interface PersonControllerDocs {
             @ApiResponse(responseCode = "200", description = "Persons retrieved successfully"),
             @ApiResponse(responseCode = "500", description = "Internal server error"),
     })
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<Page<PersonResponseDTO>> listPersons(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int size);
 
 
+    @Operation(summary = "List persons ordered by ID using an opaque cursor (keyset pagination, no total count)", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Persons retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size out of range"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+    })
+    @GetMapping(value = "/cursor", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<CursorPageResponseDTO<PersonResponseDTO>> listPersonsByCursor(@RequestParam(required = false) String after, @RequestParam(defaultValue = "10") int size);
+
+
+    @Operation(summary = "Search persons by name prefix, CPF, address city/state/ZIP code and birth-date range (keyset pagination)", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching persons retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, filter or page size out of range"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+    })
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<CursorPageResponseDTO<PersonResponseDTO>> searchPersons(@ParameterObject PersonSearchFilterDTO filter, @RequestParam(required = false) String after, @RequestParam(defaultValue = "10") int size);
+
+
+    @Operation(summary = "Typo and accent tolerant name search; returns person IDs ranked by the share of the query's trigrams they match", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ranked matches retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "limit is not between 1 and 1000, or minScore not between 0 and 1"),
+            @ApiResponse(responseCode = "503", description = "The name index is still loading"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+    })
+    @GetMapping(value = "/search/name", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<List<PersonNameMatchDTO>> searchPersonsByName(@RequestParam String q, @RequestParam(defaultValue = "0.5") double minScore, @RequestParam(defaultValue = "20") int limit);
+
+
+    @Operation(summary = "Export all persons with their addresses as newline-delimited JSON", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Persons streamed successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+    })
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportPersons(HttpServletRequest request);
+
+
+    @Operation(summary = "Stream person changes (created, updated, deleted) as Server-Sent Events", method = "GET",
+            description = "Each event's ID is its offset. A reconnecting client sends the last one in Last-Event-ID (or after) "
+                    + "and resumes right after it; without either, the stream starts with the next change")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Change stream opened"),
+            @ApiResponse(responseCode = "410", description = "The changes after the offset were already pruned"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+    })
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId, @RequestParam(required = false) Long after);
+
+
     @Operation(summary = "Delete a person and all their addresses", method = "DELETE")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Person deleted successfully"),
             @ApiResponse(responseCode = "404", description = "Person not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error"),
     })
-    @DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @DeleteMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<Void> deletePerson(@PathVariable Long id);
 
 
-    @Operation(summary = "Update a person's details and/or their address(es)", method = "PUT")
+    @Operation(summary = "Update a person's details and/or their address(es); requires the person's ETag in If-Match", method = "PUT",
+            description = "With Prefer: respond-async and write-behind enabled, the person is updated in the background; the Location header points to the status of the write")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Person updated successfully"),
+            @ApiResponse(responseCode = "202", description = "Accepted for a background write"),
             @ApiResponse(responseCode = "400", description = "Invalid request data"),
             @ApiResponse(responseCode = "404", description = "Person not found"),
             @ApiResponse(responseCode = "409", description = "CPF mismatch"),
+            @ApiResponse(responseCode = "412", description = "The person changed since the ETag in If-Match was issued"),
+            @ApiResponse(responseCode = "428", description = "If-Match header missing"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+    })
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<PersonResponseDTO> updatePerson(@RequestBody @Valid PersonRequestDTO requestDTO, @PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestHeader(value = PREFER, required = false) String prefer);
+
+
+    @Operation(summary = "Partially update a person with a JSON Merge Patch (RFC 7386); addresses are matched by ID; requires the person's ETag in If-Match", method = "PATCH")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Person updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid patch or patched person fails validation"),
+            @ApiResponse(responseCode = "404", description = "Person not found"),
+            @ApiResponse(responseCode = "412", description = "The person changed since the ETag in If-Match was issued"),
+            @ApiResponse(responseCode = "428", description = "If-Match header missing"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+    })
+    @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<PersonResponseDTO> patchPerson(@RequestBody JsonNode patch, @PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
+
+
+    @Operation(summary = "Get the status of a write accepted for the background: PENDING, APPLIED or REJECTED", method = "GET")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Write status; personId is set once applied, message once rejected"),
+            @ApiResponse(responseCode = "404", description = "Write not found, or write-behind disabled"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+    })
+    @GetMapping(value = "/writes/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<PersonWriteStatusDTO> getWriteStatus(@PathVariable Long id);
+
+
+    @Operation(summary = "Count the persons in each age bracket", method = "GET",
+            description = "Answered from counters kept current on every write; ages are taken on the returned asOf date")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Persons per age bracket"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+    })
+    @GetMapping(value = "/stats/age-distribution", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<AgeDistributionDTO> getAgeDistribution();
+
+
+    @Operation(summary = "Count the persons in each age bracket per address state", method = "GET",
+            description = "A person with addresses in several states is counted in each of them")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Persons per age bracket for every state with at least one person"),
             @ApiResponse(responseCode = "500", description = "Internal server error"),
     })
-    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<PersonResponseDTO> updatePerson(@RequestBody @Valid PersonRequestDTO requestDTO, @PathVariable Long id);
+    @GetMapping(value = "/stats/by-state", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<List<StateAgeDistributionDTO>> getStatsByState();
 
 
     @Operation(summary = "Calculate the age of a person by their ID", method = "GET")
@@ -0,0 +1,62 @@
+package io.github.com.crud_pessoa.cpf;
+
+import io.github.com.crud_pessoa.repository.PersonRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Fills the CPF index once the application is up, streaming the CPF column in a read-only transaction on a
+ * background thread. Creates keep checking the database until it is ready.
+ */
+@Component
+public class CpfIndexLoader {
+    private static final Logger log = LoggerFactory.getLogger(CpfIndexLoader.class);
+
+    private final PersonRepository repository;
+    private final CpfIndex index;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public CpfIndexLoader(PersonRepository repository, CpfIndex index, TransactionTemplate transactionTemplate, MeterRegistry registry) {
+        this.repository = repository;
+        this.index = index;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        Gauge.builder("person.cpf.index.size", index, CpfIndex::size)
+                .description("CPFs held by the in-memory uniqueness index")
+                .register(registry);
+        Gauge.builder("person.cpf.index.memory", index, CpfIndex::memoryBytes)
+                .description("Heap used by the CPF index tables")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread loader = new Thread(this::load, "cpf-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void load() {
+        long started = System.nanoTime();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> cpfs = repository.streamCpfs()) {
+                    index.load(cpfs::iterator);
+                }
+            });
+            log.info("CPF index loaded with {} CPFs ({} KB) in {} ms", index.size(), index.memoryBytes() / 1024,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("CPF index could not be loaded; creates keep checking CPFs against the database", e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.com.crud_pessoa.cpf;
+
+import io.github.com.crud_pessoa.repository.PersonRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Claims CPFs for persons about to be inserted in the current transaction. With the index ready, each CPF is
+ * reserved atomically in memory and the reservation is dropped again if the transaction does not commit; two
+ * concurrent creates of the same CPF can no longer both pass the check. While the index is loading, or for CPFs it
+ * cannot hold, the database is asked instead and its unique constraint remains the backstop.
+ */
+@Component
+public class CpfReservations {
+    private final CpfIndex index;
+    private final PersonRepository repository;
+
+    public CpfReservations(CpfIndex index, PersonRepository repository) {
+        this.index = index;
+        this.repository = repository;
+    }
+
+    /**
+     * Reserves every free CPF of {@code cpfs} for the current transaction and returns the ones already registered.
+     */
+    public Set<String> reserve(Collection<String> cpfs) {
+        Set<String> taken = new HashSet<>();
+        List<String> reserved = new ArrayList<>();
+        List<String> unchecked = new ArrayList<>();
+        boolean ready = index.isReady();
+        for (String cpf : cpfs) {
+            if (!ready || !CpfIndex.isIndexable(cpf)) {
+                unchecked.add(cpf);
+            } else if (index.reserve(cpf)) {
+                reserved.add(cpf);
+            } else {
+                taken.add(cpf);
+            }
+        }
+        if (!reserved.isEmpty()) {
+            afterCompletion(status -> {
+                if (status != TransactionSynchronization.STATUS_COMMITTED) {
+                    reserved.forEach(index::release);
+                }
+            });
+        }
+        if (!unchecked.isEmpty()) {
+            Set<String> existing = unchecked.size() == 1
+                    ? (repository.existsByCpf(unchecked.get(0)) ? Set.of(unchecked.get(0)) : Set.of())
+                    : repository.findExistingCpfs(unchecked);
+            taken.addAll(existing);
+            List<String> created = unchecked.stream().filter(cpf -> !existing.contains(cpf)).toList();
+            // not reserved, but the index must learn about them once they are committed
+            afterCompletion(status -> {
+                if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                    created.forEach(index::add);
+                }
+            });
+        }
+        return taken;
+    }
+
+    /**
+     * Frees the CPF once the transaction deleting its person commits.
+     */
+    public void releaseOnCommit(String cpf) {
+        afterCompletion(status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                index.release(cpf);
+            }
+        });
+    }
+
+    private static void afterCompletion(StatusCallback callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.completed(TransactionSynchronization.STATUS_COMMITTED);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.completed(status);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface StatusCallback {
+        void completed(int status);
+    }
+}
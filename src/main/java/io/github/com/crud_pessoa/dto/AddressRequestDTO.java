@@ -1,8 +1,9 @@
 package io.github.com.crud_pessoa.dto;
 
+import io.github.com.crud_pessoa.validation.Cep;
+import io.github.com.crud_pessoa.validation.Uf;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 public record AddressRequestDTO(
@@ -25,10 +26,10 @@ public record AddressRequestDTO(
 
         @NotBlank(message = "The state cannot be empty")
         @Size(min = 2, max = 2, message = "The state must have 2 characters (e.g., US state abbreviation)")
-        @Pattern(regexp = "^[A-Z]{2}$", message = "The state must be a valid two-letter abbreviation (e.g., SP, RJ, CA, NY)")
+        @Uf(message = "The state must be a valid two-letter abbreviation (e.g., SP, RJ, CA, NY)")
         String state,
 
         @NotBlank(message = "The ZIP code cannot be empty")
-        @Pattern(regexp = "^[0-9]{5}-[0-9]{3}$|^[0-9]{8}$", message = "The ZIP code must be in the 00000-000 or 00000000 format")
+        @Cep(message = "The ZIP code must be in the 00000-000 or 00000000 format")
         String zipCode
 ) {}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package io.github.com.crud_pessoa.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Persons per age bracket ("0-17", "18-24", ..., "65+"), with ages taken on {@code asOf}.
+ */
+public record AgeDistributionDTO(LocalDate asOf, long persons, Map<String, Long> brackets) {
+}
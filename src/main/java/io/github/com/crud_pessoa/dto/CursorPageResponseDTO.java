@@ -0,0 +1,10 @@
+package io.github.com.crud_pessoa.dto;
+
+import java.util.List;
+
+public record CursorPageResponseDTO<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {}
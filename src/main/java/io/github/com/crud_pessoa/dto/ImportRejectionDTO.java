@@ -0,0 +1,6 @@
+package io.github.com.crud_pessoa.dto;
+
+public record ImportRejectionDTO(
+        long line,
+        String message
+) {}
@@ -0,0 +1,9 @@
+package io.github.com.crud_pessoa.dto;
+
+import java.util.List;
+
+public record ImportSummaryDTO(
+        long accepted,
+        long rejected,
+        List<ImportRejectionDTO> rejections
+) {}
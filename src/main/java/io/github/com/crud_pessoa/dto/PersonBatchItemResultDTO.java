@@ -0,0 +1,8 @@
+package io.github.com.crud_pessoa.dto;
+
+public record PersonBatchItemResultDTO(
+        int index,
+        int status,
+        PersonResponseDTO person,
+        String message
+) {}
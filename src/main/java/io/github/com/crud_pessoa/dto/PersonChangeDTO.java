@@ -0,0 +1,10 @@
+package io.github.com.crud_pessoa.dto;
+
+import java.time.Instant;
+
+/**
+ * One event of the change stream: {@code CREATED}, {@code UPDATED} or {@code DELETED}. The offset is also the SSE
+ * event ID, so a reconnecting client resumes right after the last event it received.
+ */
+public record PersonChangeDTO(long offset, String type, Long personId, Instant changedAt) {
+}
@@ -0,0 +1,6 @@
+package io.github.com.crud_pessoa.dto;
+
+public record PersonNameMatchDTO(
+        Long id,
+        double score
+) {}
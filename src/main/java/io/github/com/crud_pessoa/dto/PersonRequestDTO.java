@@ -1,9 +1,10 @@
 package io.github.com.crud_pessoa.dto;
 
 import io.github.com.crud_pessoa.model.Address;
+import io.github.com.crud_pessoa.validation.Cpf;
+import io.github.com.crud_pessoa.validation.StartsWithUppercase;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
-import org.hibernate.validator.constraints.br.CPF;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -11,7 +12,7 @@ import java.util.List;
 public record PersonRequestDTO(
         @NotBlank(message = "Name is required")
         @Size(min = 3, max = 50, message = "The name must be between 3 and 50 characters long.")
-        @Pattern(regexp = "^[A-Z]+(.)*", message = "The name must start with an uppercase letter and can only contain letters and spaces.")
+        @StartsWithUppercase(message = "The name must start with an uppercase letter and can only contain letters and spaces.")
         String name,
 
         @NotNull(message = "Date of birth cannot be null")
@@ -19,7 +20,7 @@ public record PersonRequestDTO(
         LocalDate dateOfBirth,
 
 
-        @CPF(message = "Invalid CPF")
+        @Cpf(message = "Invalid CPF")
         String cpf,
 
         @Valid
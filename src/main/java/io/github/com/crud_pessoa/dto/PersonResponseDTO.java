@@ -11,5 +11,6 @@ public record PersonResponseDTO(
         String name,
         LocalDate dateOfBirth,
         String cpf,
-        List<AddressResponseDTO> addresses) {
+        List<AddressResponseDTO> addresses,
+        Long version) {
 }
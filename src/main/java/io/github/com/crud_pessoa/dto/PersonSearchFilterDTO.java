@@ -0,0 +1,19 @@
+package io.github.com.crud_pessoa.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+public record PersonSearchFilterDTO(
+        String name,
+        String cpf,
+        String city,
+        String state,
+        String zipCode,
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate bornFrom,
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate bornTo
+) {}
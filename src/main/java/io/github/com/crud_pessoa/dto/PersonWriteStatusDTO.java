@@ -0,0 +1,8 @@
+package io.github.com.crud_pessoa.dto;
+
+/**
+ * State of a write accepted in write-behind mode: {@code PENDING} until the drainer reaches it, then
+ * {@code APPLIED} with the person's ID or {@code REJECTED} with the reason.
+ */
+public record PersonWriteStatusDTO(Long id, String status, Long personId, String message) {
+}
@@ -0,0 +1,10 @@
+package io.github.com.crud_pessoa.dto;
+
+import java.util.Map;
+
+/**
+ * Persons with at least one address in {@code state}, per age bracket. A person with addresses in several states
+ * is counted in each of them.
+ */
+public record StateAgeDistributionDTO(String state, long persons, Map<String, Long> brackets) {
+}
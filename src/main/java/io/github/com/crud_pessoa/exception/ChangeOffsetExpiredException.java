@@ -0,0 +1,7 @@
+package io.github.com.crud_pessoa.exception;
+
+public class ChangeOffsetExpiredException extends RuntimeException {
+    public ChangeOffsetExpiredException(String message) {
+        super(message);
+    }
+}
@@ -1,12 +1,20 @@
 package io.github.com.crud_pessoa.exception;
 
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 import org.springframework.http.converter.HttpMessageNotReadableException; // IMPORTANTE: Adicione esta importação
 
+import java.io.IOException;
 import java.util.*;
 
 @RestControllerAdvice
@@ -57,6 +65,38 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
+    // Handler para violações das restrições do banco (ex.: CPF único) que escaparam das verificações em memória
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.CONFLICT.value()); // 409
+        response.put("error", "Data Conflict");
+        response.put("message", "The request conflicts with data already stored, e.g. a CPF that is already registered.");
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidIdempotencyKeyException(InvalidIdempotencyKeyException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.BAD_REQUEST.value()); // 400
+        response.put("error", "Bad Request");
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    // Handler para uma Idempotency-Key reaproveitada com outro corpo: repetir a resposta original estaria errado
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKeyReuseException(IdempotencyKeyReuseException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.UNPROCESSABLE_ENTITY.value()); // 422
+        response.put("error", "Unprocessable Entity");
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
+    }
+
     @ExceptionHandler(CpfMismatchException.class)
     public ResponseEntity<Map<String, Object>> handleCpfMismatchException(CpfMismatchException ex) {
                 Map<String, Object> response = new HashMap<>();
@@ -67,6 +107,104 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidCursorException(InvalidCursorException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.BAD_REQUEST.value()); // 400
+        response.put("error", "Bad Request");
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    // Handler para parâmetros de busca fora dos limites aceitos (ex.: limit ou minScore da busca por nome)
+    @ExceptionHandler(InvalidSearchParameterException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidSearchParameterException(InvalidSearchParameterException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.BAD_REQUEST.value()); // 400
+        response.put("error", "Bad Request");
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    // Handler para documentos resultantes de um PATCH que violam as mesmas regras do DTO de entrada
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleConstraintViolationException(ConstraintViolationException ex) {
+        Map<String, String> fieldErrors = new HashMap<>();
+        ex.getConstraintViolations().forEach(violation ->
+                fieldErrors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.BAD_REQUEST.value()); // 400
+        response.put("error", "Bad Request");
+        response.put("message", "Validation failed for one or more fields.");
+        response.put("details", fieldErrors);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler(InvalidPatchException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidPatchException(InvalidPatchException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.BAD_REQUEST.value()); // 400
+        response.put("error", "Bad Request");
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, Object>> handlePreconditionFailedException(PreconditionFailedException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.PRECONDITION_FAILED.value()); // 412
+        response.put("error", "Precondition Failed");
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+
+    // Handler para escritas concorrentes detectadas pelo UPDATE versionado, depois que o If-Match já foi conferido
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.PRECONDITION_FAILED.value()); // 412
+        response.put("error", "Precondition Failed");
+        response.put("message", "The person was changed by another request. Fetch it again and retry.");
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+
+    @ExceptionHandler(PreconditionRequiredException.class)
+    public ResponseEntity<Map<String, Object>> handlePreconditionRequiredException(PreconditionRequiredException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.PRECONDITION_REQUIRED.value()); // 428
+        response.put("error", "Precondition Required");
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body(response);
+    }
+
+    @ExceptionHandler(SearchIndexUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleSearchIndexUnavailableException(SearchIndexUnavailableException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value()); // 503
+        response.put("error", "Service Unavailable");
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").body(response);
+    }
+
+    @ExceptionHandler(ChangeOffsetExpiredException.class)
+    public ResponseEntity<Map<String, Object>> handleChangeOffsetExpiredException(ChangeOffsetExpiredException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.GONE.value()); // 410
+        response.put("error", "Gone");
+        response.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.GONE).body(response);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleResourceNotFoundException(ResourceNotFoundException ex) {
         Map<String, Object> response = new HashMap<>();
@@ -77,6 +215,15 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    // Um cliente de resposta em streaming (o fluxo de mudanças) desconectou: não há mais a quem responder
+    @ExceptionHandler({AsyncRequestNotUsableException.class, IOException.class})
+    public ResponseEntity<Map<String, Object>> handleIOException(Exception ex, HttpServletRequest request) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || ex instanceof AsyncRequestNotUsableException) {
+            return null;
+        }
+        return handleRuntimeException(ex);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleRuntimeException(Exception ex) {
         Map<String, Object> response = new HashMap<>();
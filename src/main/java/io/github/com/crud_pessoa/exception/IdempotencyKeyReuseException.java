@@ -0,0 +1,7 @@
+package io.github.com.crud_pessoa.exception;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.com.crud_pessoa.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.com.crud_pessoa.exception;
+
+public class InvalidPatchException extends RuntimeException {
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+
+    public InvalidPatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
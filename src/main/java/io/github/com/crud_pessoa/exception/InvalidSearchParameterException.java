@@ -0,0 +1,7 @@
+package io.github.com.crud_pessoa.exception;
+
+public class InvalidSearchParameterException extends RuntimeException {
+    public InvalidSearchParameterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.com.crud_pessoa.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
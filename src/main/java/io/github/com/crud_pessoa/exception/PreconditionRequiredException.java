@@ -0,0 +1,7 @@
+package io.github.com.crud_pessoa.exception;
+
+public class PreconditionRequiredException extends RuntimeException {
+    public PreconditionRequiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.com.crud_pessoa.exception;
+
+public class SearchIndexUnavailableException extends RuntimeException {
+    public SearchIndexUnavailableException(String message) {
+        super(message);
+    }
+}
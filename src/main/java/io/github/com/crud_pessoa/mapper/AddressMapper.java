@@ -3,11 +3,19 @@ package io.github.com.crud_pessoa.mapper;
 import io.github.com.crud_pessoa.dto.AddressRequestDTO;
 import io.github.com.crud_pessoa.dto.AddressResponseDTO;
 import io.github.com.crud_pessoa.model.Address;
+import io.github.com.crud_pessoa.repository.projection.AddressRow;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 
 @Mapper(componentModel = "spring")
 public interface AddressMapper {
     Address toEntity(AddressRequestDTO dto);
     AddressResponseDTO toDTO(Address entity);
+    AddressResponseDTO toDTO(AddressRow row);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "person", ignore = true)
+    void updateEntity(AddressRequestDTO dto, @MappingTarget Address entity);
 }
@@ -1,9 +1,11 @@
 package io.github.com.crud_pessoa.mapper;
 
+import io.github.com.crud_pessoa.dto.AddressResponseDTO;
 import io.github.com.crud_pessoa.dto.PersonRequestDTO;
 import io.github.com.crud_pessoa.dto.PersonResponseDTO;
 import io.github.com.crud_pessoa.model.Address;
 import io.github.com.crud_pessoa.model.Person;
+import io.github.com.crud_pessoa.repository.projection.PersonRow;
 import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -19,6 +21,13 @@ public interface PersonMapper {
 
     List<PersonResponseDTO> toListDTO(List<Person> entities);
 
+    PersonResponseDTO toDTO(PersonRow row, List<AddressResponseDTO> addresses);
+
+    // Addresses are diffed by ID by the caller, so only the person's own columns are copied here.
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "addresses", ignore = true)
+    void updateEntity(PersonRequestDTO dto, @MappingTarget Person entity);
+
     @AfterMapping
     default void linkAddressToPerson(@MappingTarget Person person) {
         if (person.getAddresses() != null) {
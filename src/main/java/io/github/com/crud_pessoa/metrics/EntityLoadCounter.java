@@ -0,0 +1,17 @@
+package io.github.com.crud_pessoa.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Counts every entity Hibernate hydrates on the current thread, into the same thread-local as
+ * {@link SqlStatementCounter}. Registered through {@code hibernate.session_factory.interceptor}; a request that loads
+ * far more entities than it returns is fetching collections or associations it does not need.
+ */
+public class EntityLoadCounter implements Interceptor {
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        SqlStatementCounter.entityLoaded();
+        return false;
+    }
+}
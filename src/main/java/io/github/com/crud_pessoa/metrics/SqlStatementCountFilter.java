@@ -0,0 +1,101 @@
+package io.github.com.crud_pessoa.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Reports how many SQL statements a request issued, both as the {@value #HEADER} response header and as the
+ * {@code person.request.sql.statements} distribution, and how many entities it loaded as the
+ * {@code person.request.entities.loaded} distribution. The header is written right before the body starts, since
+ * headers can no longer change once the response is committed.
+ */
+@Component
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-SQL-Statement-Count";
+
+    private final DistributionSummary statementsPerRequest;
+    private final DistributionSummary entitiesPerRequest;
+
+    public SqlStatementCountFilter(MeterRegistry registry) {
+        this.statementsPerRequest = DistributionSummary.builder("person.request.sql.statements")
+                .description("SQL statements issued per HTTP request")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        this.entitiesPerRequest = DistributionSummary.builder("person.request.entities.loaded")
+                .description("Entities loaded by Hibernate per HTTP request")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.reset();
+        CountingHeaderResponse wrapped = new CountingHeaderResponse(response);
+        try {
+            chain.doFilter(request, wrapped);
+            // responses without a body (e.g. 204) never asked for the output stream
+            wrapped.writeHeader();
+        } finally {
+            statementsPerRequest.record(SqlStatementCounter.current());
+            entitiesPerRequest.record(SqlStatementCounter.entitiesLoaded());
+            SqlStatementCounter.clear();
+        }
+    }
+
+    private static final class CountingHeaderResponse extends HttpServletResponseWrapper {
+        private boolean headerWritten;
+
+        CountingHeaderResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        private void writeHeader() {
+            if (!headerWritten && !isCommitted()) {
+                setIntHeader(HEADER, SqlStatementCounter.current());
+                headerWritten = true;
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.com.crud_pessoa.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, and the entities it loads there (fed by
+ * {@link EntityLoadCounter}). Registered through {@code hibernate.session_factory.statement_inspector}, so Hibernate
+ * instantiates it itself and the counts live in a static thread-local rather than in a Spring bean.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final int STATEMENTS = 0;
+    private static final int ENTITIES = 1;
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[2]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[STATEMENTS]++;
+        return sql;
+    }
+
+    static void entityLoaded() {
+        COUNT.get()[ENTITIES]++;
+    }
+
+    public static void reset() {
+        int[] count = COUNT.get();
+        count[STATEMENTS] = 0;
+        count[ENTITIES] = 0;
+    }
+
+    public static int current() {
+        return COUNT.get()[STATEMENTS];
+    }
+
+    public static int entitiesLoaded() {
+        return COUNT.get()[ENTITIES];
+    }
+
+    public static void clear() {
+        COUNT.remove();
+    }
+}
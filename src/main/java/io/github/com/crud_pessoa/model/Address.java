@@ -2,12 +2,20 @@ package io.github.com.crud_pessoa.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
-@Table(name = "endereco")
+@DynamicUpdate
+@Table(name = "endereco", indexes = {
+        @Index(name = "idx_endereco_cidade", columnList = "cidade, person_id"),
+        @Index(name = "idx_endereco_estado", columnList = "estado, person_id"),
+        @Index(name = "idx_endereco_cep", columnList = "cep, person_id"),
+        @Index(name = "idx_endereco_person_id", columnList = "person_id")
+})
 public class Address {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "endereco_seq")
+    @SequenceGenerator(name = "endereco_seq", sequenceName = "endereco_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "rua")
@@ -2,6 +2,9 @@ package io.github.com.crud_pessoa.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.time.Period;
@@ -9,10 +12,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "pessoa")
+@DynamicUpdate
+@Table(name = "pessoa", uniqueConstraints = @UniqueConstraint(name = "uk_pessoa_cpf", columnNames = "cpf"), indexes = {
+        @Index(name = "idx_pessoa_nome", columnList = "nome, id"),
+        @Index(name = "idx_pessoa_data_aniversario", columnList = "data_aniversario, id")
+})
 public class Person {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pessoa_seq")
+    @SequenceGenerator(name = "pessoa_seq", sequenceName = "pessoa_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "nome", nullable = false)
@@ -21,11 +29,19 @@ public class Person {
     @Column(name = "data_aniversario")
     private LocalDate dateOfBirth;
 
-    @Column(name = "cpf", unique = true)
+    @Column(name = "cpf")
     private String cpf;
 
+    // Bumped on every write; exposed as the person's ETag. The default covers rows inserted outside JPA.
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    private Long version;
+
+    // Lazy, but initialized for a whole page of persons in one batched SELECT instead of one per person.
     @OneToMany(mappedBy = "person", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("id ASC")
+    @BatchSize(size = 500)
     @JsonManagedReference
     private List<Address> addresses = new ArrayList<>();
 
@@ -73,6 +89,14 @@ public class Person {
         this.cpf = cpf;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<Address> getAddresses() {
         return addresses;
     }
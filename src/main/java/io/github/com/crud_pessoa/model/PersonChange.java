@@ -0,0 +1,71 @@
+package io.github.com.crud_pessoa.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Outbox row for a person created, updated or deleted. The offset is assigned when the change is published, and
+ * is where a client of the change stream resumes from.
+ */
+@Entity
+@Table(name = "person_change",
+        uniqueConstraints = @UniqueConstraint(name = "uk_person_change_offset", columnNames = "change_offset"),
+        indexes = @Index(name = "idx_person_change_unpublished", columnList = "change_offset, id"))
+public class PersonChange {
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "person_change_seq")
+    @SequenceGenerator(name = "person_change_seq", sequenceName = "person_change_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "change_offset")
+    private Long offset;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "type", nullable = false, length = 10)
+    private Type type;
+
+    @Column(name = "person_id", nullable = false)
+    private Long personId;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    protected PersonChange() {
+    }
+
+    public PersonChange(Type type, Long personId) {
+        this.type = type;
+        this.personId = personId;
+        this.changedAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(Long offset) {
+        this.offset = offset;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.com.crud_pessoa.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a write accepted in write-behind mode. The ID is the write's sequence in the local log, assigned
+ * before the row exists, so the entity reports itself as new and is persisted (and batched) without a merge SELECT.
+ */
+@Entity
+@Table(name = "person_write")
+public class PersonWrite implements Persistable<Long> {
+    public enum Status { APPLIED, REJECTED }
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "status", nullable = false, length = 10)
+    private Status status;
+
+    @Column(name = "person_id")
+    private Long personId;
+
+    @Column(name = "message", length = 1000)
+    private String message;
+
+    @Column(name = "applied_at", nullable = false)
+    private Instant appliedAt;
+
+    protected PersonWrite() {
+    }
+
+    private PersonWrite(Long id, Status status, Long personId, String message) {
+        this.id = id;
+        this.status = status;
+        this.personId = personId;
+        this.message = message;
+        this.appliedAt = Instant.now();
+    }
+
+    public static PersonWrite applied(long id, Long personId) {
+        return new PersonWrite(id, Status.APPLIED, personId, null);
+    }
+
+    public static PersonWrite rejected(long id, String message) {
+        String truncated = message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+        return new PersonWrite(id, Status.REJECTED, null, truncated);
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    // rows are written once, when the write is applied, and never updated
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Instant getAppliedAt() {
+        return appliedAt;
+    }
+}
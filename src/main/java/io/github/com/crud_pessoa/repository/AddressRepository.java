@@ -1,7 +1,17 @@
 package io.github.com.crud_pessoa.repository;
 
 import io.github.com.crud_pessoa.model.Address;
+import io.github.com.crud_pessoa.repository.projection.AddressRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface AddressRepository extends JpaRepository<Address, Long> {
+    // Second phase of a projected list page: the addresses of all its persons in one query over the person_id index.
+    @Query("select new io.github.com.crud_pessoa.repository.projection.AddressRow(a.person.id, a.id, a.street, a.number, "
+            + "a.neighborhood, a.city, a.state, a.zipCode) from Address a where a.person.id in :personIds order by a.id")
+    List<AddressRow> findRowsByPersonIdIn(@Param("personIds") Collection<Long> personIds);
 }
@@ -0,0 +1,31 @@
+package io.github.com.crud_pessoa.repository;
+
+import io.github.com.crud_pessoa.model.PersonChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface PersonChangeRepository extends JpaRepository<PersonChange, Long> {
+    // Changes still waiting for the publisher, in insertion order.
+    List<PersonChange> findByOffsetIsNullOrderById(Limit limit);
+
+    List<PersonChange> findByOffsetGreaterThanOrderByOffset(long after, Limit limit);
+
+    @Query("select max(c.offset) from PersonChange c")
+    Long findMaxOffset();
+
+    @Query("select min(c.offset) from PersonChange c")
+    Long findMinOffset();
+
+    // Keeps the newest published row whatever its age, so offsets keep counting from it after a restart.
+    @Transactional
+    @Modifying
+    @Query("delete from PersonChange c where c.changedAt < :before and c.offset < (select max(x.offset) from PersonChange x)")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
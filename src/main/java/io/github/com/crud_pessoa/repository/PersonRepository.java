@@ -1,11 +1,85 @@
 package io.github.com.crud_pessoa.repository;
 
 import io.github.com.crud_pessoa.model.Person;
+import io.github.com.crud_pessoa.repository.projection.BirthDateCount;
+import io.github.com.crud_pessoa.repository.projection.BirthDateStateCount;
+import io.github.com.crud_pessoa.repository.projection.PersonAgeRow;
+import io.github.com.crud_pessoa.repository.projection.PersonNameRow;
+import io.github.com.crud_pessoa.repository.projection.PersonRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface PersonRepository extends JpaRepository<Person, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface PersonRepository extends JpaRepository<Person, Long>, JpaSpecificationExecutor<Person>, PersonRowRepository {
     boolean existsByCpf(String cpf);
-    Page<Person> findAll(Pageable pageable);
+
+    // Forward-only cursor over the whole table; must be consumed inside a transaction and closed.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new io.github.com.crud_pessoa.repository.projection.PersonRow(p.id, p.name, p.dateOfBirth, p.cpf, p.version) "
+            + "from Person p order by p.id")
+    Stream<PersonRow> streamRowsOrderById();
+
+    // Answers conditional GETs without loading the person or its addresses.
+    @Query("select p.version from Person p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // The age lookup needs two columns, not the entity and its addresses.
+    @Query("select new io.github.com.crud_pessoa.repository.projection.PersonAgeRow(p.name, p.dateOfBirth) "
+            + "from Person p where p.id = :id")
+    Optional<PersonAgeRow> findAgeRowById(@Param("id") Long id);
+
+    // Seeds the age statistics: persons per birth date, and per birth date and distinct address state.
+    @Query("select new io.github.com.crud_pessoa.repository.projection.BirthDateCount(p.dateOfBirth, count(p)) "
+            + "from Person p group by p.dateOfBirth")
+    List<BirthDateCount> countByDateOfBirth();
+
+    @Query("select new io.github.com.crud_pessoa.repository.projection.BirthDateStateCount(p.dateOfBirth, a.state, count(distinct p.id)) "
+            + "from Person p join p.addresses a group by p.dateOfBirth, a.state")
+    List<BirthDateStateCount> countByDateOfBirthAndState();
+
+    @Query("select max(p.id) from Person p")
+    Long findMaxId();
+
+    // Only the two columns the name index needs, for IDs in [fromId, toId).
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new io.github.com.crud_pessoa.repository.projection.PersonNameRow(p.id, p.name) "
+            + "from Person p where p.id >= :fromId and p.id < :toId")
+    Stream<PersonNameRow> streamNamesByIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    // Every CPF, for warming the in-memory CPF index; must be consumed inside a transaction and closed.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select p.cpf from Person p")
+    Stream<String> streamCpfs();
+
+    @Query("select p.cpf from Person p where p.cpf in :cpfs")
+    Set<String> findExistingCpfs(@Param("cpfs") Collection<String> cpfs);
+
+    // Single lookups always map the addresses, so they are joined in the same SELECT.
+    @Override
+    @EntityGraph(attributePaths = "addresses")
+    Optional<Person> findById(Long id);
+
+    // List pages select rows straight into records: no managed entities, no dirty-checking snapshots.
+    @Query(value = "select new io.github.com.crud_pessoa.repository.projection.PersonRow(p.id, p.name, p.dateOfBirth, p.cpf, p.version) "
+            + "from Person p", countQuery = "select count(p) from Person p")
+    Page<PersonRow> findRows(Pageable pageable);
+
+    // Keyset page: seeks past the last seen id instead of OFFSET and skips the count query.
+    @Query("select new io.github.com.crud_pessoa.repository.projection.PersonRow(p.id, p.name, p.dateOfBirth, p.cpf, p.version) "
+            + "from Person p where p.id > :id")
+    Slice<PersonRow> findRowsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
 }
@@ -0,0 +1,16 @@
+package io.github.com.crud_pessoa.repository;
+
+import io.github.com.crud_pessoa.model.Person;
+import io.github.com.crud_pessoa.repository.projection.PersonRow;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Specification queries that select {@link PersonRow}s instead of entities; derived and fluent queries can only
+ * return entities for a Specification.
+ */
+public interface PersonRowRepository {
+    List<PersonRow> findRows(Specification<Person> spec, Sort sort, int limit);
+}
@@ -0,0 +1,37 @@
+package io.github.com.crud_pessoa.repository;
+
+import io.github.com.crud_pessoa.model.Person;
+import io.github.com.crud_pessoa.repository.projection.PersonRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+class PersonRowRepositoryImpl implements PersonRowRepository {
+    private final EntityManager entityManager;
+
+    PersonRowRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<PersonRow> findRows(Specification<Person> spec, Sort sort, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PersonRow> query = builder.createQuery(PersonRow.class);
+        Root<Person> person = query.from(Person.class);
+        query.select(builder.construct(PersonRow.class, person.get("id"), person.get("name"),
+                person.get("dateOfBirth"), person.get("cpf"), person.get("version")));
+        Predicate predicate = spec.toPredicate(person, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, person, builder));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.com.crud_pessoa.repository;
+
+import io.github.com.crud_pessoa.dto.PersonSearchFilterDTO;
+import io.github.com.crud_pessoa.repository.projection.PersonRow;
+import org.springframework.data.domain.Sort;
+
+import java.util.function.Function;
+
+/**
+ * Order in which a search walks its results. Range filters page in the order of their own index, so each page is a
+ * short ordered read of that index instead of a sort of every match; equality filters page by ID.
+ */
+public enum PersonSearchOrder {
+    ID(null, person -> ""),
+    NAME("name", PersonRow::name),
+    DATE_OF_BIRTH("dateOfBirth", person -> person.dateOfBirth().toString());
+
+    private final String attribute;
+    private final Function<PersonRow, String> key;
+
+    PersonSearchOrder(String attribute, Function<PersonRow, String> key) {
+        this.attribute = attribute;
+        this.key = key;
+    }
+
+    // A unique CPF beats everything; otherwise the name prefix, then the birth-date range lead.
+    public static PersonSearchOrder of(PersonSearchFilterDTO filter) {
+        if (filter.cpf() != null && !filter.cpf().isBlank()) {
+            return ID;
+        }
+        if (filter.name() != null && !filter.name().isBlank()) {
+            return NAME;
+        }
+        if (filter.bornFrom() != null || filter.bornTo() != null) {
+            return DATE_OF_BIRTH;
+        }
+        return ID;
+    }
+
+    String attribute() {
+        return attribute;
+    }
+
+    public Sort sort() {
+        Sort byId = Sort.by(Sort.Direction.ASC, "id");
+        return attribute == null ? byId : Sort.by(Sort.Direction.ASC, attribute).and(byId);
+    }
+
+    public String keyOf(PersonRow person) {
+        return key.apply(person);
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.com.crud_pessoa.repository;
+
+import io.github.com.crud_pessoa.dto.PersonSearchFilterDTO;
+import io.github.com.crud_pessoa.model.Address;
+import io.github.com.crud_pessoa.model.Person;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search filters for {@link Person}. Every predicate is shaped so the database can answer it from one of the
+ * indexes declared on the entities: equality, ranges and a name prefix written as a range, never a wildcard or a
+ * function over the column. Blank filters are left out of the query.
+ */
+public final class PersonSpecifications {
+    private PersonSpecifications() {
+    }
+
+    /**
+     * Filters plus the keyset condition for the page after {@code (lastKey, lastId)}; pass a {@code null} key and
+     * ID 0 for the first page.
+     */
+    public static Specification<Person> search(PersonSearchFilterDTO filter, PersonSearchOrder order, String lastKey, long lastId) {
+        boolean byAddress = !isBlank(filter.city()) || !isBlank(filter.state()) || !isBlank(filter.zipCode());
+        return Specification.allOf(
+                nameStartsWith(filter.name()),
+                hasCpf(filter.cpf()),
+                bornBetween(filter.bornFrom(), filter.bornTo()),
+                // In ID order the cursor goes inside the address subquery: the (column, person_id) index then
+                // yields only the owners past the cursor instead of every owner being matched against "id > ?".
+                hasAddressIn(filter.city(), filter.state(), filter.zipCode(), order == PersonSearchOrder.ID ? lastId : 0),
+                order == PersonSearchOrder.ID && byAddress ? null : after(order, lastKey, lastId));
+    }
+
+    static Specification<Person> after(PersonSearchOrder order, String lastKey, long lastId) {
+        if (lastKey == null && lastId == 0) {
+            return null;
+        }
+        if (order == PersonSearchOrder.ID) {
+            return (root, query, cb) -> cb.greaterThan(root.get("id"), lastId);
+        }
+        // (key, id) > (lastKey, lastId), with the redundant "key >= lastKey" so the seek starts in the index
+        return (root, query, cb) -> {
+            Path<Comparable<Object>> key = root.get(order.attribute());
+            Comparable<Object> last = order == PersonSearchOrder.DATE_OF_BIRTH ? cast(LocalDate.parse(lastKey)) : cast(lastKey);
+            return cb.and(
+                    cb.greaterThanOrEqualTo(key, last),
+                    cb.or(cb.greaterThan(key, last), cb.greaterThan(root.get("id"), lastId)));
+        };
+    }
+
+    // "name >= prefix and name < next(prefix)" is what LIKE 'prefix%' means, but unlike a LIKE with a bound
+    // parameter it is an index range the planner can see when the statement is prepared.
+    static Specification<Person> nameStartsWith(String prefix) {
+        if (isBlank(prefix)) {
+            return null;
+        }
+        String upperBound = nextPrefix(prefix);
+        return (root, query, cb) -> upperBound == null
+                ? cb.greaterThanOrEqualTo(root.get("name"), prefix)
+                : cb.and(cb.greaterThanOrEqualTo(root.get("name"), prefix), cb.lessThan(root.get("name"), upperBound));
+    }
+
+    static Specification<Person> hasCpf(String cpf) {
+        if (isBlank(cpf)) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("cpf"), cpf);
+    }
+
+    static Specification<Person> bornBetween(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (from == null) {
+                return cb.lessThanOrEqualTo(root.get("dateOfBirth"), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get("dateOfBirth"), from);
+            }
+            return cb.between(root.get("dateOfBirth"), from, to);
+        };
+    }
+
+    // An IN subquery rather than a join, so a person with several matching addresses is returned once and keyset
+    // pages stay exact without DISTINCT.
+    static Specification<Person> hasAddressIn(String city, String state, String zipCode, long afterPersonId) {
+        if (isBlank(city) && isBlank(state) && isBlank(zipCode)) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<Long> owners = query.subquery(Long.class);
+            Root<Address> address = owners.from(Address.class);
+            Path<Long> ownerId = address.get("person").get("id");
+            List<Predicate> predicates = new ArrayList<>(4);
+            if (!isBlank(city)) {
+                predicates.add(cb.equal(address.get("city"), city));
+            }
+            if (!isBlank(state)) {
+                predicates.add(cb.equal(address.get("state"), state));
+            }
+            if (!isBlank(zipCode)) {
+                predicates.add(cb.equal(address.get("zipCode"), zipCode));
+            }
+            if (afterPersonId > 0) {
+                predicates.add(cb.greaterThan(ownerId, afterPersonId));
+            }
+            owners.select(ownerId).where(predicates.toArray(Predicate[]::new));
+            return root.get("id").in(owners);
+        };
+    }
+
+    // Smallest string greater than every string starting with the prefix, or null when there is none.
+    static String nextPrefix(String prefix) {
+        StringBuilder next = new StringBuilder(prefix);
+        while (!next.isEmpty()) {
+            int last = next.length() - 1;
+            if (next.charAt(last) != Character.MAX_VALUE) {
+                next.setCharAt(last, (char) (next.charAt(last) + 1));
+                return next.toString();
+            }
+            next.setLength(last);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> cast(Comparable<?> value) {
+        return (Comparable<Object>) value;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
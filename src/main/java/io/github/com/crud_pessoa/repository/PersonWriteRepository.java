@@ -0,0 +1,22 @@
+package io.github.com.crud_pessoa.repository;
+
+import io.github.com.crud_pessoa.model.PersonWrite;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface PersonWriteRepository extends JpaRepository<PersonWrite, Long> {
+    // The drain checkpoint: every log entry up to this ID has been applied or rejected.
+    @Query("select max(w.id) from PersonWrite w")
+    Long findMaxId();
+
+    // Keeps the newest row whatever its age, so the checkpoint survives pruning.
+    @Transactional
+    @Modifying
+    @Query("delete from PersonWrite w where w.appliedAt < :before and w.id < (select max(x.id) from PersonWrite x)")
+    int deleteAppliedBefore(@Param("before") Instant before);
+}
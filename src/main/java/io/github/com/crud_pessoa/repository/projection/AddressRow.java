@@ -0,0 +1,5 @@
+package io.github.com.crud_pessoa.repository.projection;
+
+public record AddressRow(Long personId, Long id, String street, String number, String neighborhood, String city,
+                         String state, String zipCode) {
+}
@@ -0,0 +1,6 @@
+package io.github.com.crud_pessoa.repository.projection;
+
+import java.time.LocalDate;
+
+public record BirthDateStateCount(LocalDate dateOfBirth, String state, Long persons) {
+}
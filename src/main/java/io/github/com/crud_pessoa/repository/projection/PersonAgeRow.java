@@ -0,0 +1,10 @@
+package io.github.com.crud_pessoa.repository.projection;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+public record PersonAgeRow(String name, LocalDate dateOfBirth) {
+    public int ageOn(LocalDate date) {
+        return Period.between(dateOfBirth, date).getYears();
+    }
+}
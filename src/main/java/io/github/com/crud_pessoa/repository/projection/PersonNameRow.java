@@ -0,0 +1,4 @@
+package io.github.com.crud_pessoa.repository.projection;
+
+public record PersonNameRow(Long id, String name) {
+}
@@ -0,0 +1,74 @@
+package io.github.com.crud_pessoa.search;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Turns a name into the set of its trigram codes. Names are folded first (accents stripped, lower case, anything
+ * other than letters and digits treated as a word break), so "João" and "joao" index the same trigrams. Each word
+ * is padded like pg_trgm does ("  jo", " joa", ..., "ao "), which lets short words and word starts still match.
+ */
+final class NameTrigrams {
+    private static final int ALPHABET = 37; // padding/space, a-z, 0-9
+    static final int CODES = ALPHABET * ALPHABET * ALPHABET;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private NameTrigrams() {
+    }
+
+    static String fold(String name) {
+        String withoutAccents = COMBINING_MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return withoutAccents.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigram codes of the name, sorted ascending.
+     */
+    static int[] of(String name) {
+        if (name == null) {
+            return new int[0];
+        }
+        String folded = fold(name);
+        int[] codes = new int[folded.length() * 2 + 2];
+        int count = 0;
+        int a = 0;
+        int b = 0;
+        for (int i = 0; i <= folded.length(); i++) {
+            int c = i < folded.length() ? symbol(folded.charAt(i)) : 0;
+            if (c == 0 && b == 0) {
+                // consecutive word breaks: nothing to emit, restart padding
+                a = 0;
+                continue;
+            }
+            codes[count++] = (a * ALPHABET + b) * ALPHABET + c;
+            if (c == 0) {
+                a = 0;
+                b = 0;
+            } else {
+                a = b;
+                b = c;
+            }
+        }
+        int[] distinct = Arrays.copyOf(codes, count);
+        Arrays.sort(distinct);
+        int n = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) {
+                distinct[n++] = distinct[i];
+            }
+        }
+        return Arrays.copyOf(distinct, n);
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,247 @@
+package io.github.com.crud_pessoa.search;
+
+import io.github.com.crud_pessoa.dto.PersonNameMatchDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over person names, for typo and accent tolerant lookups.
+ *
+ * <p>Every trigram code owns a sorted {@code int[]} of person IDs. A query with {@code k} trigrams and a minimum
+ * score needs at least {@code t} of them to match, so candidates are only collected from the {@code k - t + 1}
+ * shortest lists and then checked against the others by binary search; the long lists of common trigrams are never
+ * scanned. The score is the fraction of the query's trigrams found in the name.
+ *
+ * <p>Until the first {@link #load(Postings) load} the index is not ready: writes are journaled and replayed on top
+ * of the loaded postings, so changes committed while the startup scan was running are not lost. All operations are
+ * idempotent, which makes replaying a change the scan already saw harmless.
+ */
+@Component
+public class PersonNameIndex {
+    private static final Comparator<PersonNameMatchDTO> RANKING = Comparator
+            .comparingDouble(PersonNameMatchDTO::score).reversed()
+            .thenComparingLong(PersonNameMatchDTO::id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Runnable> journal = new ArrayList<>();
+    private Postings postings = new Postings();
+    private boolean ready;
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(long id, String name) {
+        replace(id, null, name);
+    }
+
+    public void remove(long id, String name) {
+        replace(id, name, null);
+    }
+
+    public void replace(long id, String previousName, String name) {
+        int personId = Math.toIntExact(id);
+        int[] removed = NameTrigrams.of(previousName);
+        int[] added = NameTrigrams.of(name);
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                apply(personId, removed, added);
+            } else {
+                journal.add(() -> apply(personId, removed, added));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(int id, int[] removed, int[] added) {
+        for (int code : removed) {
+            if (Arrays.binarySearch(added, code) < 0) {
+                postings.remove(code, id);
+            }
+        }
+        for (int code : added) {
+            postings.add(code, id);
+        }
+    }
+
+    /**
+     * Swaps in postings built by a full scan, replays the writes journaled meanwhile and marks the index ready.
+     */
+    void load(Postings loaded) {
+        lock.writeLock().lock();
+        try {
+            postings = loaded;
+            journal.forEach(Runnable::run);
+            journal.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Best matches for the query, highest score first and then by ID.
+     */
+    public List<PersonNameMatchDTO> search(String query, double minScore, int limit) {
+        int[] codes = NameTrigrams.of(query);
+        if (codes.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        int required = Math.max(1, (int) Math.ceil(codes.length * minScore));
+
+        lock.readLock().lock();
+        try {
+            int[][] lists = new int[codes.length][];
+            int[] sizes = new int[codes.length];
+            Integer[] order = new Integer[codes.length];
+            for (int i = 0; i < codes.length; i++) {
+                lists[i] = postings.ids[codes[i]];
+                sizes[i] = postings.sizes[codes[i]];
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingInt(i -> sizes[i]));
+
+            // any ID with enough matches appears in at least one of the shortest (k - t + 1) lists
+            int probe = codes.length - required + 1;
+            int total = 0;
+            for (int i = 0; i < probe; i++) {
+                total += sizes[order[i]];
+            }
+            int[] candidates = new int[total];
+            int n = 0;
+            for (int i = 0; i < probe; i++) {
+                int list = order[i];
+                if (sizes[list] > 0) {
+                    System.arraycopy(lists[list], 0, candidates, n, sizes[list]);
+                    n += sizes[list];
+                }
+            }
+            Arrays.sort(candidates, 0, n);
+
+            PriorityQueue<PersonNameMatchDTO> best = new PriorityQueue<>(Math.min(limit, n) + 1, RANKING.reversed());
+            for (int start = 0; start < n; ) {
+                int id = candidates[start];
+                int end = start;
+                while (end < n && candidates[end] == id) {
+                    end++;
+                }
+                int matches = end - start;
+                for (int i = probe; i < codes.length && matches + (codes.length - i) >= required; i++) {
+                    int list = order[i];
+                    if (sizes[list] > 0 && Arrays.binarySearch(lists[list], 0, sizes[list], id) >= 0) {
+                        matches++;
+                    }
+                }
+                if (matches >= required) {
+                    best.add(new PersonNameMatchDTO((long) id, (double) matches / codes.length));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+                start = end;
+            }
+            List<PersonNameMatchDTO> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING);
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Posting lists of an index, one sorted ID array per trigram code. Not thread-safe on its own: the index guards
+     * the live instance, and the startup scan builds private ones that are only {@link #merge merged} and loaded.
+     */
+    static final class Postings {
+        private final int[][] ids = new int[NameTrigrams.CODES][];
+        private final int[] sizes = new int[NameTrigrams.CODES];
+
+        void add(long id, String name) {
+            int personId = Math.toIntExact(id);
+            for (int code : NameTrigrams.of(name)) {
+                add(code, personId);
+            }
+        }
+
+        void add(int code, int id) {
+            int size = sizes[code];
+            int[] list = ids[code];
+            // IDs come from a sequence, so appending is the common case
+            if (size > 0 && list[size - 1] >= id) {
+                int at = Arrays.binarySearch(list, 0, size, id);
+                if (at >= 0) {
+                    return;
+                }
+                insertAt(code, -at - 1, id);
+                return;
+            }
+            insertAt(code, size, id);
+        }
+
+        private void insertAt(int code, int at, int id) {
+            int size = sizes[code];
+            int[] list = ids[code];
+            if (list == null || size == list.length) {
+                list = Arrays.copyOf(list == null ? new int[0] : list, Math.max(4, size + (size >> 1)));
+                ids[code] = list;
+            }
+            System.arraycopy(list, at, list, at + 1, size - at);
+            list[at] = id;
+            sizes[code] = size + 1;
+        }
+
+        void remove(int code, int id) {
+            int size = sizes[code];
+            if (size == 0) {
+                return;
+            }
+            int[] list = ids[code];
+            int at = Arrays.binarySearch(list, 0, size, id);
+            if (at >= 0) {
+                System.arraycopy(list, at + 1, list, at, size - at - 1);
+                sizes[code] = size - 1;
+            }
+        }
+
+        /**
+         * Concatenates postings built over consecutive, ascending ID ranges; every list stays sorted.
+         */
+        static Postings merge(List<Postings> parts) {
+            Postings merged = new Postings();
+            for (int code = 0; code < NameTrigrams.CODES; code++) {
+                int total = 0;
+                for (Postings part : parts) {
+                    total += part.sizes[code];
+                }
+                if (total == 0) {
+                    continue;
+                }
+                int[] list = new int[total];
+                int n = 0;
+                for (Postings part : parts) {
+                    if (part.sizes[code] > 0) {
+                        System.arraycopy(part.ids[code], 0, list, n, part.sizes[code]);
+                        n += part.sizes[code];
+                    }
+                }
+                merged.ids[code] = list;
+                merged.sizes[code] = total;
+            }
+            return merged;
+        }
+    }
+}
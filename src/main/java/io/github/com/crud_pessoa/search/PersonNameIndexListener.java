@@ -0,0 +1,25 @@
+package io.github.com.crud_pessoa.search;
+
+import io.github.com.crud_pessoa.service.PersonChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Applies committed person changes to the name index; rolled back writes never reach it.
+ */
+@Component
+public class PersonNameIndexListener {
+    private final PersonNameIndex index;
+
+    public PersonNameIndexListener(PersonNameIndex index) {
+        this.index = index;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        if (event.previousName() == null ? event.name() == null : event.previousName().equals(event.name())) {
+            return;
+        }
+        index.replace(event.id(), event.previousName(), event.name());
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.com.crud_pessoa.search;
+
+import io.github.com.crud_pessoa.repository.PersonRepository;
+import io.github.com.crud_pessoa.repository.projection.PersonNameRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Builds the name index once the application is up. The ID space is split into one range per worker; each worker
+ * streams its range in its own read-only transaction into private postings, and the parts are concatenated in
+ * range order, which keeps every posting list sorted without a final sort.
+ */
+@Component
+public class PersonNameIndexLoader {
+    private static final Logger log = LoggerFactory.getLogger(PersonNameIndexLoader.class);
+
+    private final PersonRepository repository;
+    private final PersonNameIndex index;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int workers;
+
+    public PersonNameIndexLoader(PersonRepository repository, PersonNameIndex index, TransactionTemplate transactionTemplate,
+                                 @Value("${person.search.name-index.workers:0}") int workers) {
+        this.repository = repository;
+        this.index = index;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread loader = new Thread(this::load, "person-name-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void load() {
+        long started = System.nanoTime();
+        Long maxId = repository.findMaxId();
+        if (maxId == null) {
+            index.load(new PersonNameIndex.Postings());
+            return;
+        }
+        long rangeSize = maxId / workers + 1;
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<CompletableFuture<PersonNameIndex.Postings>> parts = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                long from = i * rangeSize;
+                long to = from + rangeSize;
+                parts.add(CompletableFuture.supplyAsync(() -> scan(from, to), pool));
+            }
+            index.load(PersonNameIndex.Postings.merge(parts.stream().map(CompletableFuture::join).toList()));
+            log.info("Person name index loaded up to ID {} in {} ms", maxId, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Person name index could not be loaded; name search stays unavailable", e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private PersonNameIndex.Postings scan(long fromId, long toId) {
+        return readOnlyTransaction.execute(status -> {
+            PersonNameIndex.Postings postings = new PersonNameIndex.Postings();
+            try (Stream<PersonNameRow> rows = repository.streamNamesByIdRange(fromId, toId)) {
+                rows.forEach(row -> postings.add(row.id(), row.name()));
+            }
+            return postings;
+        });
+    }
+}
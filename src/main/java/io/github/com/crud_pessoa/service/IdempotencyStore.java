@@ -0,0 +1,108 @@
+package io.github.com.crud_pessoa.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.exception.IdempotencyKeyReuseException;
+import io.github.com.crud_pessoa.exception.InvalidIdempotencyKeyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the person created for each {@code Idempotency-Key}, so a client retrying a create gets the original
+ * response back instead of a CPF conflict. Keys live in memory, bounded by count and expiring after a TTL; on a
+ * multi-replica deployment a retry only replays if it reaches the same instance.
+ *
+ * <p>The first request with a key claims it before creating anything. Requests arriving with the same key while
+ * it runs wait for its result, so parallel retries create one person. A failed create releases the key, letting the
+ * client correct the request and retry; a key reused with a different body is refused.
+ */
+@Component
+public class IdempotencyStore {
+    public static final int MAX_KEY_LENGTH = 255;
+
+    public record Outcome(PersonResponseDTO response, boolean replayed) {
+    }
+
+    private record Entry(PersonRequestDTO request, CompletableFuture<PersonResponseDTO> response) {
+    }
+
+    private final Cache<String, Entry> entries;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter rejected;
+
+    public IdempotencyStore(MeterRegistry registry,
+                            @Value("${person.idempotency.max-keys:100000}") long maxKeys,
+                            @Value("${person.idempotency.ttl:24h}") Duration ttl) {
+        this.entries = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterWrite(ttl).build();
+        this.executed = outcome(registry, "executed");
+        this.replayed = outcome(registry, "replayed");
+        this.rejected = outcome(registry, "rejected");
+        Gauge.builder("person.idempotency.keys", entries, Cache::estimatedSize)
+                .description("Idempotency keys currently remembered")
+                .register(registry);
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder("person.idempotency.requests")
+                .description("Creates sent with an Idempotency-Key, by whether they ran or replayed a previous response")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    public Outcome create(String key, PersonRequestDTO request, Supplier<PersonResponseDTO> create) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("The Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+        Entry claimed = new Entry(request, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, claimed);
+        if (existing == null) {
+            return new Outcome(run(key, claimed, create), false);
+        }
+        if (!existing.request().equals(request)) {
+            rejected.increment();
+            throw new IdempotencyKeyReuseException("The Idempotency-Key " + key + " was already used with a different request body.");
+        }
+        PersonResponseDTO response = await(existing.response());
+        replayed.increment();
+        return new Outcome(response, true);
+    }
+
+    private PersonResponseDTO run(String key, Entry claimed, Supplier<PersonResponseDTO> create) {
+        try {
+            PersonResponseDTO created = create.get();
+            claimed.response().complete(created);
+            executed.increment();
+            return created;
+        } catch (RuntimeException | Error e) {
+            entries.asMap().remove(key, claimed);
+            claimed.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // requests waiting on a create that failed get the same error, e.g. the 409 of a CPF taken by someone else
+    private static PersonResponseDTO await(CompletableFuture<PersonResponseDTO> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
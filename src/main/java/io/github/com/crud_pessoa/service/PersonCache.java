@@ -0,0 +1,48 @@
+package io.github.com.crud_pessoa.service;
+
+import io.github.com.crud_pessoa.config.CacheConfig;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of single persons. Writes never put into it: a committed change evicts the person, so a rolled
+ * back write leaves no trace. A read that misses notes how many changes were committed before it went to the
+ * database; if another one commits before its result is cached, that result may be the old row, and it is dropped
+ * again right after the put, which would otherwise undo the eviction until the entry expires.
+ */
+@Component
+public class PersonCache {
+    private final Cache cache;
+    private final AtomicLong committedChanges = new AtomicLong();
+
+    public PersonCache(CacheManager cacheManager) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.PERSONS), "cache " + CacheConfig.PERSONS);
+    }
+
+    public PersonResponseDTO get(Long id, Function<Long, PersonResponseDTO> loader) {
+        PersonResponseDTO cached = cache.get(id, PersonResponseDTO.class);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = committedChanges.get();
+        PersonResponseDTO person = loader.apply(id);
+        cache.put(id, person);
+        if (committedChanges.get() != seen) {
+            cache.evict(id);
+        }
+        return person;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        committedChanges.incrementAndGet();
+        cache.evict(event.id());
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.com.crud_pessoa.service;
+
+import io.github.com.crud_pessoa.dto.AddressResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.model.Address;
+import io.github.com.crud_pessoa.model.Person;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Published by the services for every person created, updated or deleted. Listeners that keep derived state
+ * (search indexes, statistics and the like) should react after commit. {@code previousName} and {@code previous}
+ * are null for a creation, {@code name} and {@code current} are null for a deletion.
+ */
+public record PersonChangedEvent(Long id, String previousName, String name, Demographics previous, Demographics current) {
+    public static PersonChangedEvent created(Person person) {
+        return new PersonChangedEvent(person.getId(), null, person.getName(), null, Demographics.of(person));
+    }
+
+    public static PersonChangedEvent updated(PersonResponseDTO before, Person person) {
+        return new PersonChangedEvent(person.getId(), before.name(), person.getName(), Demographics.of(before), Demographics.of(person));
+    }
+
+    public static PersonChangedEvent deleted(Person person) {
+        return new PersonChangedEvent(person.getId(), person.getName(), null, Demographics.of(person), null);
+    }
+
+    /**
+     * What the age statistics count a person by: the birth date and the distinct states of the addresses.
+     */
+    public record Demographics(LocalDate dateOfBirth, Set<String> states) {
+        static Demographics of(Person person) {
+            return new Demographics(person.getDateOfBirth(),
+                    person.getAddresses().stream().map(Address::getState).collect(Collectors.toUnmodifiableSet()));
+        }
+
+        static Demographics of(PersonResponseDTO person) {
+            return new Demographics(person.dateOfBirth(),
+                    person.addresses().stream().map(AddressResponseDTO::state).collect(Collectors.toUnmodifiableSet()));
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package io.github.com.crud_pessoa.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.com.crud_pessoa.cpf.CpfReservations;
+import io.github.com.crud_pessoa.dto.AddressRequestDTO;
+import io.github.com.crud_pessoa.dto.ImportRejectionDTO;
+import io.github.com.crud_pessoa.dto.ImportSummaryDTO;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import io.github.com.crud_pessoa.mapper.PersonMapper;
+import io.github.com.crud_pessoa.model.Person;
+import io.github.com.crud_pessoa.repository.PersonRepository;
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import pipeline: rows are parsed one line at a time, validated in parallel on a fixed worker pool, checked for
+ * duplicated CPFs (inside the chunk being built and against the registered ones, earlier chunks included) and inserted
+ * in chunks, one transaction per chunk. At most {@code queueCapacity} rows are in flight, so a fast client cannot make the server buffer the whole upload.
+ */
+@Service
+@Timed(value = "person.service", description = "Time spent in each person service operation")
+public class PersonImportService {
+    private static final Logger log = LoggerFactory.getLogger(PersonImportService.class);
+    static final String CSV_HEADER = "name,dateOfBirth,cpf,street,number,neighborhood,city,state,zipCode";
+    static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    public enum Format { NDJSON, CSV }
+
+    private final PersonRepository repository;
+    private final PersonMapper mapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher events;
+    private final CpfReservations cpfReservations;
+    private final ExecutorService workers;
+    private final int queueCapacity;
+    private final int chunkSize;
+
+    public PersonImportService(PersonRepository repository, PersonMapper mapper, Validator validator, ObjectMapper objectMapper,
+                               TransactionTemplate transactionTemplate, ApplicationEventPublisher events,
+                               CpfReservations cpfReservations,
+                               @Value("${person.import.workers:0}") int workers,
+                               @Value("${person.import.queue-capacity:1000}") int queueCapacity,
+                               @Value("${person.import.chunk-size:500}") int chunkSize) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.events = events;
+        this.cpfReservations = cpfReservations;
+        this.workers = Executors.newFixedThreadPool(workers > 0 ? workers : Runtime.getRuntime().availableProcessors(), daemonThreads());
+        this.queueCapacity = queueCapacity;
+        this.chunkSize = chunkSize;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public ImportSummaryDTO importPersons(Reader body, Format format) throws IOException {
+        var summary = new Summary();
+        Deque<Future<Row>> inFlight = new ArrayDeque<>(queueCapacity);
+        // keyed by CPF: a CPF repeated within the chunk is caught here, one repeated in a later chunk by the
+        // reservations of the chunk that wrote it, so nothing grows with the size of the import
+        Map<String, Row> chunk = new LinkedHashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(body)) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (format == Format.CSV && lineNumber == 1 && isCsvHeader(line))) {
+                    continue;
+                }
+                final long current = lineNumber;
+                final String raw = line;
+                if (inFlight.size() == queueCapacity) {
+                    accept(await(inFlight.poll()), chunk, summary);
+                }
+                inFlight.add(workers.submit(() -> validate(parse(current, raw, format))));
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            accept(await(inFlight.poll()), chunk, summary);
+        }
+        writeChunk(chunk, summary);
+        return summary.toDTO();
+    }
+
+    private void accept(Row row, Map<String, Row> chunk, Summary summary) {
+        if (row.error() != null) {
+            summary.reject(row.line(), row.error());
+        } else if (chunk.putIfAbsent(row.person().cpf(), row) != null) {
+            summary.reject(row.line(), "Duplicated CPF in the import: " + row.person().cpf());
+        } else if (chunk.size() == chunkSize) {
+            writeChunk(chunk, summary);
+        }
+    }
+
+    // The summary only learns the outcome once the chunk's transaction is over: a chunk that fails rejects all its lines.
+    private void writeChunk(Map<String, Row> pending, Summary summary) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Row> chunk = List.copyOf(pending.values());
+        pending.clear();
+        try {
+            Set<String> existingCpfs = transactionTemplate.execute(status -> {
+                Set<String> existing = cpfReservations.reserve(chunk.stream().map(r -> r.person().cpf()).toList());
+                List<Person> persons = chunk.stream()
+                        .filter(row -> !existing.contains(row.person().cpf()))
+                        .map(row -> mapper.toEntity(row.person()))
+                        .toList();
+                repository.saveAll(persons);
+                persons.forEach(person -> events.publishEvent(PersonChangedEvent.created(person)));
+                return existing;
+            });
+            for (Row row : chunk) {
+                if (existingCpfs.contains(row.person().cpf())) {
+                    summary.reject(row.line(), "There is already a registered user with the CPF provided: " + row.person().cpf());
+                } else {
+                    summary.accepted++;
+                }
+            }
+        } catch (RuntimeException e) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("Import chunk of {} rows from line {} could not be written: {}", chunk.size(), chunk.get(0).line(), cause);
+            chunk.forEach(row -> summary.reject(row.line(), "The chunk containing this line could not be written: " + cause));
+        }
+    }
+
+    private Row parse(long line, String raw, Format format) {
+        try {
+            PersonRequestDTO person = format == Format.NDJSON
+                    ? objectMapper.readValue(raw, PersonRequestDTO.class)
+                    : parseCsv(raw);
+            return new Row(line, person, null);
+        } catch (JsonProcessingException e) {
+            return new Row(line, null, "Malformed JSON: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new Row(line, null, e.getMessage());
+        }
+    }
+
+    private Row validate(Row row) {
+        if (row.error() != null) {
+            return row;
+        }
+        Set<ConstraintViolation<PersonRequestDTO>> violations = validator.validate(row.person());
+        if (violations.isEmpty()) {
+            return row;
+        }
+        String message = violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        return new Row(row.line(), null, message);
+    }
+
+    private static boolean isCsvHeader(String line) {
+        return line.replace(" ", "").equalsIgnoreCase(CSV_HEADER);
+    }
+
+    // One person with a single address per row, in the CSV_HEADER column order.
+    static PersonRequestDTO parseCsv(String line) {
+        List<String> columns = splitCsv(line);
+        if (columns.size() != 9) {
+            throw new IllegalArgumentException("Expected 9 CSV columns (" + CSV_HEADER + ") but found " + columns.size());
+        }
+        var address = new AddressRequestDTO(null, columns.get(3), columns.get(4), columns.get(5), columns.get(6), columns.get(7), columns.get(8));
+        LocalDate dateOfBirth = columns.get(1).isEmpty() ? null : LocalDate.parse(columns.get(1));
+        return new PersonRequestDTO(columns.get(0), dateOfBirth, columns.get(2), List.of(address));
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> columns = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted CSV field");
+        }
+        columns.add(current.toString().trim());
+        return columns;
+    }
+
+    private static Row await(Future<Row> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Import validation failed", e.getCause());
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "person-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Row(long line, PersonRequestDTO person, String error) {}
+
+    private static final class Summary {
+        private long accepted;
+        private long rejected;
+        private final List<ImportRejectionDTO> rejections = new ArrayList<>();
+
+        void reject(long line, String message) {
+            rejected++;
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(new ImportRejectionDTO(line, message));
+            }
+        }
+
+        ImportSummaryDTO toDTO() {
+            rejections.sort((a, b) -> Long.compare(a.line(), b.line()));
+            return new ImportSummaryDTO(accepted, rejected, List.copyOf(rejections));
+        }
+    }
+}
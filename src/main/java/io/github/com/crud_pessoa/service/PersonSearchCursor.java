@@ -0,0 +1,46 @@
+package io.github.com.crud_pessoa.service;
+
+import io.github.com.crud_pessoa.exception.InvalidCursorException;
+import io.github.com.crud_pessoa.repository.PersonSearchOrder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for search pages: the search order plus the sort key and id of the last person returned. A cursor
+ * only continues a search with the same leading filter; anything else is rejected rather than silently restarted.
+ */
+final class PersonSearchCursor {
+    record Position(String key, long id) {
+        static final Position FIRST = new Position(null, 0L);
+    }
+
+    private PersonSearchCursor() {
+    }
+
+    static String encode(PersonSearchOrder order, String key, long lastId) {
+        byte[] raw = (order.name() + ":" + lastId + ":" + key).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    static Position decode(String cursor, PersonSearchOrder order) {
+        if (cursor == null || cursor.isBlank()) {
+            return Position.FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3 || !parts[0].equals(order.name())) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            if (order == PersonSearchOrder.DATE_OF_BIRTH) {
+                LocalDate.parse(parts[2]);
+            }
+            return new Position(order == PersonSearchOrder.ID ? null : parts[2], Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -1,77 +1,410 @@
 package io.github.com.crud_pessoa.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.com.crud_pessoa.cpf.CpfReservations;
+import io.github.com.crud_pessoa.dto.AddressRequestDTO;
+import io.github.com.crud_pessoa.dto.AddressResponseDTO;
+import io.github.com.crud_pessoa.dto.CursorPageResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonBatchItemResultDTO;
+import io.github.com.crud_pessoa.dto.PersonNameMatchDTO;
 import io.github.com.crud_pessoa.dto.PersonRequestDTO;
 import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonSearchFilterDTO;
 import io.github.com.crud_pessoa.exception.CpfAlreadyExistsException;
 import io.github.com.crud_pessoa.exception.CpfMismatchException;
+import io.github.com.crud_pessoa.exception.InvalidPatchException;
+import io.github.com.crud_pessoa.exception.InvalidSearchParameterException;
+import io.github.com.crud_pessoa.exception.PreconditionFailedException;
 import io.github.com.crud_pessoa.exception.ResourceNotFoundException;
+import io.github.com.crud_pessoa.exception.SearchIndexUnavailableException;
+import io.github.com.crud_pessoa.mapper.AddressMapper;
 import io.github.com.crud_pessoa.mapper.PersonMapper;
+import io.github.com.crud_pessoa.model.Address;
 import io.github.com.crud_pessoa.model.Person;
+import io.github.com.crud_pessoa.repository.AddressRepository;
 import io.github.com.crud_pessoa.repository.PersonRepository;
+import io.github.com.crud_pessoa.repository.PersonSearchOrder;
+import io.github.com.crud_pessoa.repository.PersonSpecifications;
+import io.github.com.crud_pessoa.repository.projection.AddressRow;
+import io.github.com.crud_pessoa.repository.projection.PersonAgeRow;
+import io.github.com.crud_pessoa.repository.projection.PersonRow;
+import io.github.com.crud_pessoa.search.PersonNameIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "person.service", description = "Time spent in each person service operation")
 public class PersonService {
+    static final int EXPORT_CHUNK_SIZE = 500;
+    static final int MAX_NAME_MATCHES = 1000;
+    static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
     private final PersonRepository repository;
+    private final AddressRepository addressRepository;
     private final PersonMapper mapper;
+    private final AddressMapper addressMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher events;
+    private final PersonNameIndex nameIndex;
+    private final CpfReservations cpfReservations;
+    private final PersonCache personCache;
 
-    public PersonService(PersonRepository repository, PersonMapper mapper) {
+    public PersonService(PersonRepository repository, AddressRepository addressRepository, PersonMapper mapper, AddressMapper addressMapper, Validator validator,
+                         EntityManager entityManager, ObjectMapper objectMapper, ApplicationEventPublisher events,
+                         PersonNameIndex nameIndex, CpfReservations cpfReservations, PersonCache personCache) {
         this.repository = repository;
+        this.addressRepository = addressRepository;
         this.mapper = mapper;
+        this.addressMapper = addressMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.events = events;
+        this.nameIndex = nameIndex;
+        this.cpfReservations = cpfReservations;
+        this.personCache = personCache;
     }
 
+    @Transactional
     public PersonResponseDTO savePerson(PersonRequestDTO dto) {
         Person person = mapper.toEntity(dto);
-        if (repository.existsByCpf(person.getCpf())) {
+        if (!cpfReservations.reserve(List.of(person.getCpf())).isEmpty()) {
             throw new CpfAlreadyExistsException("There is already a registered user with the CPF provided: " + person.getCpf());
         }
 
         Person savedPerson = repository.save(person);
+        events.publishEvent(PersonChangedEvent.created(savedPerson));
         return mapper.toDTO(savedPerson);
     }
 
+    /**
+     * Creates every valid person of the batch in a single transaction. Items are validated one by one, CPFs are
+     * reserved in the CPF index (or checked with a single IN query while it loads) and inserts are flushed as JDBC
+     * batches. Invalid or
+     * duplicated items are reported in their own result and do not prevent the others from being created.
+     */
+    @Transactional
+    public List<PersonBatchItemResultDTO> savePersons(List<PersonRequestDTO> dtos) {
+        PersonBatchItemResultDTO[] results = new PersonBatchItemResultDTO[dtos.size()];
+        List<Integer> candidates = new ArrayList<>();
+        Set<String> batchCpfs = new HashSet<>();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            PersonRequestDTO dto = dtos.get(i);
+            if (dto == null) {
+                results[i] = new PersonBatchItemResultDTO(i, HttpStatus.BAD_REQUEST.value(), null, "Person cannot be null");
+                continue;
+            }
+            Set<ConstraintViolation<PersonRequestDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                results[i] = new PersonBatchItemResultDTO(i, HttpStatus.BAD_REQUEST.value(), null, describe(violations));
+            } else if (!batchCpfs.add(dto.cpf())) {
+                results[i] = new PersonBatchItemResultDTO(i, HttpStatus.CONFLICT.value(), null, "Duplicated CPF in the batch: " + dto.cpf());
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        Set<String> existingCpfs = batchCpfs.isEmpty() ? Set.of() : cpfReservations.reserve(batchCpfs);
+        List<Integer> created = new ArrayList<>();
+        List<Person> persons = new ArrayList<>();
+        for (int i : candidates) {
+            String cpf = dtos.get(i).cpf();
+            if (existingCpfs.contains(cpf)) {
+                results[i] = new PersonBatchItemResultDTO(i, HttpStatus.CONFLICT.value(), null, "There is already a registered user with the CPF provided: " + cpf);
+            } else {
+                created.add(i);
+                persons.add(mapper.toEntity(dtos.get(i)));
+            }
+        }
+
+        List<Person> savedPersons = repository.saveAll(persons);
+        for (int j = 0; j < created.size(); j++) {
+            int i = created.get(j);
+            events.publishEvent(PersonChangedEvent.created(savedPersons.get(j)));
+            results[i] = new PersonBatchItemResultDTO(i, HttpStatus.CREATED.value(), mapper.toDTO(savedPersons.get(j)), null);
+        }
+        return List.of(results);
+    }
+
+    private static String describe(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    // Not transactional: a cache hit needs no connection, and findById fetches the addresses with the person.
     public PersonResponseDTO getPersonById(Long id) {
-        Person person = repository.findById(id)
+        return personCache.get(id, personId -> mapper.toDTO(repository.findById(personId)
+                .orElseThrow(() -> new ResourceNotFoundException("Person with ID " + personId + " not found."))));
+    }
+
+    /**
+     * Current version of the person, read without loading its columns or addresses; enough to answer a conditional
+     * GET whose ETag is still current.
+     */
+    @Transactional(readOnly = true)
+    public long getPersonVersion(Long id) {
+        return repository.findVersionById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Person with ID " + id + " not found."));
-        return mapper.toDTO(person);
     }
 
+    @Transactional(readOnly = true)
     public Page<PersonResponseDTO> getAllPersons(int page, int size) {
         var pageable = PageRequest.of(page, size);
-        var personsPage = repository.findAll(pageable);
+        var personsPage = repository.findRows(pageable);
+
+        return new PageImpl<>(toDTOs(personsPage.getContent()), pageable, personsPage.getTotalElements());
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<PersonResponseDTO> getPersonsAfter(String after, int size) {
+        checkCursorPageSize(size);
+        long lastId = PersonCursor.decode(after);
+        var pageable = PageRequest.of(0, size, Sort.by(Sort.Direction.ASC, "id"));
+        var slice = repository.findRowsByIdGreaterThan(lastId, pageable);
+
+        List<PersonResponseDTO> content = toDTOs(slice.getContent());
+        String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? PersonCursor.encode(content.get(content.size() - 1).id())
+                : null;
+        return new CursorPageResponseDTO<>(content, size, slice.hasNext(), nextCursor);
+    }
 
-        return personsPage.map(mapper::toDTO);
+    /**
+     * Keyset search over the indexed filters. One extra row is fetched to know whether another page exists, so no
+     * count query runs. Results come in the order of the leading filter's index (see {@link PersonSearchOrder}).
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<PersonResponseDTO> searchPersons(PersonSearchFilterDTO filter, String after, int size) {
+        checkCursorPageSize(size);
+        PersonSearchOrder order = PersonSearchOrder.of(filter);
+        PersonSearchCursor.Position position = PersonSearchCursor.decode(after, order);
+        Specification<Person> spec = PersonSpecifications.search(filter, order, position.key(), position.id());
+        List<PersonRow> rows = repository.findRows(spec, order.sort(), size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<PersonRow> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext && !page.isEmpty()
+                ? PersonSearchCursor.encode(order, order.keyOf(page.get(page.size() - 1)), page.get(page.size() - 1).id())
+                : null;
+        return new CursorPageResponseDTO<>(toDTOs(page), size, hasNext, nextCursor);
+    }
+
+    // a zero or negative size would fail in the query or report a next page without a cursor to reach it
+    private static void checkCursorPageSize(int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new InvalidSearchParameterException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE + ".");
+        }
     }
 
+    /**
+     * Typo and accent tolerant lookup on the in-memory name index; returns ranked IDs only, the caller loads what
+     * it needs. {@code limit} is capped at {@value #MAX_NAME_MATCHES} and {@code minScore} must lie in [0, 1].
+     */
+    public List<PersonNameMatchDTO> searchByName(String query, double minScore, int limit) {
+        if (limit < 1 || limit > MAX_NAME_MATCHES) {
+            throw new InvalidSearchParameterException("limit must be between 1 and " + MAX_NAME_MATCHES + ".");
+        }
+        if (!(minScore >= 0 && minScore <= 1)) {
+            throw new InvalidSearchParameterException("minScore must be between 0 and 1.");
+        }
+        if (!nameIndex.isReady()) {
+            throw new SearchIndexUnavailableException("The name index is still loading, try again shortly.");
+        }
+        return nameIndex.search(query, minScore, limit);
+    }
+
+    /**
+     * Streams every person, ordered by ID, to the consumer. Rows are read from a forward-only cursor in chunks and
+     * each chunk loads its addresses in one query, so memory use does not grow with the size of the table.
+     */
+    @Transactional(readOnly = true)
+    public void exportPersons(Consumer<PersonResponseDTO> consumer) {
+        List<PersonRow> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        try (Stream<PersonRow> persons = repository.streamRowsOrderById()) {
+            persons.forEach(person -> {
+                chunk.add(person);
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    flushExportChunk(chunk, consumer);
+                }
+            });
+        }
+        flushExportChunk(chunk, consumer);
+    }
+
+    private void flushExportChunk(List<PersonRow> chunk, Consumer<PersonResponseDTO> consumer) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        toDTOs(chunk).forEach(consumer);
+        chunk.clear();
+    }
+
+    /**
+     * Builds the responses of a list page from projected rows: the persons' addresses come from a single second
+     * query and nothing is attached to the persistence context.
+     */
+    private List<PersonResponseDTO> toDTOs(List<PersonRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = rows.stream().map(PersonRow::id).toList();
+        Map<Long, List<AddressResponseDTO>> addresses = addressRepository.findRowsByPersonIdIn(ids).stream()
+                .collect(Collectors.groupingBy(AddressRow::personId,
+                        Collectors.mapping(addressMapper::toDTO, Collectors.toList())));
+        return rows.stream()
+                .map(row -> mapper.toDTO(row, addresses.getOrDefault(row.id(), List.of())))
+                .toList();
+    }
+
+    @Transactional
     public void deletePerson(Long id) {
         Person person = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Person with ID " + id + " not found."));
         repository.delete(person);
+        cpfReservations.releaseOnCommit(person.getCpf());
+        events.publishEvent(PersonChangedEvent.deleted(person));
     }
 
-    public PersonResponseDTO updatePerson(PersonRequestDTO dto, Long id) {
+    /**
+     * Replaces the person if it is still at {@code expectedVersion} ({@code null} skips the check). A concurrent
+     * write that commits in between is still caught by the versioned UPDATE.
+     */
+    @Transactional
+    public PersonResponseDTO updatePerson(PersonRequestDTO dto, Long id, Long expectedVersion) {
         Person currentPerson = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Person with ID " + id + " not found"));
+        checkVersion(currentPerson, expectedVersion);
 
         if (!currentPerson.getCpf().equals(dto.cpf())) {
             throw new CpfMismatchException("CPF mismatch.");
         }
 
+        PersonResponseDTO before = mapper.toDTO(currentPerson);
         Person personToUpdate = mapper.toEntity(dto);
         personToUpdate.setId(id);
+        personToUpdate.setVersion(currentPerson.getVersion());
         personToUpdate.getAddresses().forEach(a -> a.setPerson(personToUpdate));
 
         Person savedPerson = repository.save(personToUpdate);
-        return mapper.toDTO(savedPerson);
+        PersonResponseDTO updated = flushVersioned(savedPerson, before);
+        events.publishEvent(PersonChangedEvent.updated(before, savedPerson));
+        return updated;
     }
 
-    public String calculateAgeById(Long id) {
+    /**
+     * Applies a JSON Merge Patch to the managed entity. The patched document goes through the same validation as a
+     * PUT body, then only the changed columns are written: addresses are matched by ID, so untouched addresses issue
+     * no SQL, changed ones a dynamic UPDATE, new ones an INSERT and the ones left out of the array a DELETE.
+     */
+    @Transactional
+    public PersonResponseDTO patchPerson(JsonNode patch, Long id, Long expectedVersion) {
         Person person = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Person with ID " + id + " not found"));
-        return "The age of " + person.getName() + " is: " + person.getPersonAge() + " years.";
+        checkVersion(person, expectedVersion);
+
+        PersonResponseDTO before = mapper.toDTO(person);
+        ObjectNode current = objectMapper.valueToTree(before);
+        current.remove("id");
+        current.remove("version");
+        PersonRequestDTO dto;
+        try {
+            dto = objectMapper.treeToValue(JsonMergePatch.apply(current, patch), PersonRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidPatchException("The patch does not produce a valid person: " + e.getOriginalMessage(), e);
+        }
+
+        Set<ConstraintViolation<PersonRequestDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        if (!person.getCpf().equals(dto.cpf())) {
+            throw new CpfMismatchException("CPF mismatch.");
+        }
+
+        mapper.updateEntity(dto, person);
+        mergeAddresses(person, dto.addresses());
+        PersonResponseDTO patched = flushVersioned(person, before);
+        events.publishEvent(PersonChangedEvent.updated(before, person));
+        return patched;
+    }
+
+    private static void checkVersion(Person person, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(person.getVersion())) {
+            throw new PreconditionFailedException("Person with ID " + person.getId() + " is at version "
+                    + person.getVersion() + ", not " + expectedVersion + ". Fetch it again and retry.");
+        }
+    }
+
+    /**
+     * Flushes the write and maps the result. Changes to the pessoa row bump the version by themselves, but edited
+     * addresses live in their own table; when only those changed the version is forced up, so the ETag of the new
+     * representation never equals the old one.
+     */
+    private PersonResponseDTO flushVersioned(Person person, PersonResponseDTO before) {
+        repository.flush();
+        PersonResponseDTO after = mapper.toDTO(person);
+        if (Objects.equals(after.version(), before.version()) && !after.equals(before)) {
+            entityManager.lock(person, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+            after = mapper.toDTO(person);
+        }
+        return after;
+    }
+
+    private void mergeAddresses(Person person, List<AddressRequestDTO> addresses) {
+        Map<Long, Address> existing = person.getAddresses().stream()
+                .collect(Collectors.toMap(Address::getId, Function.identity()));
+        List<Address> merged = new ArrayList<>(addresses.size());
+        for (AddressRequestDTO dto : addresses) {
+            Address address = dto.id() == null ? new Address() : existing.remove(dto.id());
+            if (address == null) {
+                throw new InvalidPatchException("Address with ID " + dto.id() + " does not belong to person " + person.getId());
+            }
+            addressMapper.updateEntity(dto, address);
+            address.setPerson(person);
+            merged.add(address);
+        }
+        // keep the managed collection instance so orphanRemoval deletes exactly the addresses left out
+        person.getAddresses().removeAll(existing.values());
+        merged.stream().filter(a -> a.getId() == null).forEach(person.getAddresses()::add);
+    }
+
+    @Transactional(readOnly = true)
+    public String calculateAgeById(Long id) {
+        PersonAgeRow person = repository.findAgeRowById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Person with ID " + id + " not found"));
+        return "The age of " + person.name() + " is: " + person.ageOn(LocalDate.now()) + " years.";
     }
 }
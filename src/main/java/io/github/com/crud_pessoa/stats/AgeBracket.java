@@ -0,0 +1,43 @@
+package io.github.com.crud_pessoa.stats;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+public enum AgeBracket {
+    UNDER_18(0, "0-17"),
+    FROM_18_TO_24(18, "18-24"),
+    FROM_25_TO_34(25, "25-34"),
+    FROM_35_TO_44(35, "35-44"),
+    FROM_45_TO_54(45, "45-54"),
+    FROM_55_TO_64(55, "55-64"),
+    FROM_65(65, "65+");
+
+    private static final AgeBracket[] BRACKETS = values();
+
+    private final int minAge;
+    private final String label;
+
+    AgeBracket(int minAge, String label) {
+        this.minAge = minAge;
+        this.label = label;
+    }
+
+    public int minAge() {
+        return minAge;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    // Same age as Person#getPersonAge; a birth date after the given date falls in the first bracket.
+    public static AgeBracket of(LocalDate dateOfBirth, LocalDate date) {
+        int age = Period.between(dateOfBirth, date).getYears();
+        for (int i = BRACKETS.length - 1; i > 0; i--) {
+            if (age >= BRACKETS[i].minAge) {
+                return BRACKETS[i];
+            }
+        }
+        return UNDER_18;
+    }
+}
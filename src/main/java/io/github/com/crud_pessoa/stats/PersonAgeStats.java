@@ -0,0 +1,158 @@
+package io.github.com.crud_pessoa.stats;
+
+import io.github.com.crud_pessoa.dto.AgeDistributionDTO;
+import io.github.com.crud_pessoa.dto.StateAgeDistributionDTO;
+import io.github.com.crud_pessoa.repository.projection.BirthDateCount;
+import io.github.com.crud_pessoa.repository.projection.BirthDateStateCount;
+import io.github.com.crud_pessoa.service.PersonChangedEvent.Demographics;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Person counts per age bracket, overall and per address state, kept current by every committed change so the
+ * statistics endpoints answer from memory instead of scanning the table.
+ *
+ * <p>Next to the counters, persons are also counted per birth date. Ages only change on birthdays, so advancing
+ * the counters by a day ({@link #rollOver(LocalDate)}) moves just the birth dates that reach a bracket's lower age
+ * on that day, one per bracket (two on the 1st of March after a non-leap February), instead of recounting everyone.
+ */
+@Component
+public class PersonAgeStats {
+    private static final AgeBracket[] BRACKETS = AgeBracket.values();
+
+    private final Map<LocalDate, BirthDate> birthDates = new HashMap<>();
+    private final long[] brackets = new long[BRACKETS.length];
+    private final Map<String, long[]> states = new TreeMap<>();
+    private LocalDate asOf = LocalDate.now();
+
+    synchronized void load(List<BirthDateCount> persons, List<BirthDateStateCount> personsByState, LocalDate date) {
+        birthDates.clear();
+        states.clear();
+        Arrays.fill(brackets, 0);
+        asOf = date;
+        for (BirthDateCount row : persons) {
+            if (row.dateOfBirth() != null) {
+                birthDates.computeIfAbsent(row.dateOfBirth(), d -> new BirthDate()).persons += row.persons();
+                brackets[bracketOf(row.dateOfBirth())] += row.persons();
+            }
+        }
+        for (BirthDateStateCount row : personsByState) {
+            if (row.dateOfBirth() != null) {
+                birthDates.computeIfAbsent(row.dateOfBirth(), d -> new BirthDate()).states.merge(row.state(), row.persons(), Long::sum);
+                states.computeIfAbsent(row.state(), s -> new long[BRACKETS.length])[bracketOf(row.dateOfBirth())] += row.persons();
+            }
+        }
+    }
+
+    /**
+     * Moves a person from the counts of {@code previous} to those of {@code current}; either is null for a creation
+     * or a deletion. The counts only add and subtract, so changes may arrive in any order.
+     */
+    public synchronized void replace(Demographics previous, Demographics current) {
+        if (previous != null) {
+            count(previous, -1);
+        }
+        if (current != null) {
+            count(current, 1);
+        }
+    }
+
+    private void count(Demographics person, long delta) {
+        LocalDate dateOfBirth = person.dateOfBirth();
+        if (dateOfBirth == null) {
+            return;
+        }
+        int bracket = bracketOf(dateOfBirth);
+        BirthDate birthDate = birthDates.computeIfAbsent(dateOfBirth, d -> new BirthDate());
+        birthDate.persons += delta;
+        brackets[bracket] += delta;
+        for (String state : person.states()) {
+            birthDate.states.merge(state, delta, (a, b) -> a + b == 0 ? null : a + b);
+            states.computeIfAbsent(state, s -> new long[BRACKETS.length])[bracket] += delta;
+        }
+        if (birthDate.persons == 0) {
+            birthDates.remove(dateOfBirth);
+        }
+    }
+
+    /**
+     * Advances the ages, one day at a time, up to {@code date}. Whoever was born on a day in
+     * {@code (day - minAge years, nextDay - minAge years]} turns {@code minAge} on {@code nextDay}.
+     */
+    public synchronized void rollOver(LocalDate date) {
+        while (asOf.isBefore(date)) {
+            LocalDate next = asOf.plusDays(1);
+            for (int bracket = 1; bracket < BRACKETS.length; bracket++) {
+                int minAge = BRACKETS[bracket].minAge();
+                LocalDate last = next.minusYears(minAge);
+                for (LocalDate born = asOf.minusYears(minAge).plusDays(1); !born.isAfter(last); born = born.plusDays(1)) {
+                    BirthDate birthDate = birthDates.get(born);
+                    if (birthDate != null) {
+                        move(birthDate, bracket - 1, bracket);
+                    }
+                }
+            }
+            asOf = next;
+        }
+    }
+
+    private void move(BirthDate birthDate, int from, int to) {
+        brackets[from] -= birthDate.persons;
+        brackets[to] += birthDate.persons;
+        birthDate.states.forEach((state, persons) -> {
+            long[] counts = states.get(state);
+            counts[from] -= persons;
+            counts[to] += persons;
+        });
+    }
+
+    public synchronized AgeDistributionDTO ageDistribution(LocalDate date) {
+        rollOver(date);
+        return new AgeDistributionDTO(asOf, sum(brackets), labeled(brackets));
+    }
+
+    public synchronized List<StateAgeDistributionDTO> byState(LocalDate date) {
+        rollOver(date);
+        List<StateAgeDistributionDTO> result = new ArrayList<>(states.size());
+        states.forEach((state, counts) -> {
+            long persons = sum(counts);
+            if (persons > 0) {
+                result.add(new StateAgeDistributionDTO(state, persons, labeled(counts)));
+            }
+        });
+        return result;
+    }
+
+    private int bracketOf(LocalDate dateOfBirth) {
+        return AgeBracket.of(dateOfBirth, asOf).ordinal();
+    }
+
+    private static Map<String, Long> labeled(long[] counts) {
+        Map<String, Long> labeled = new LinkedHashMap<>();
+        for (AgeBracket bracket : BRACKETS) {
+            labeled.put(bracket.label(), counts[bracket.ordinal()]);
+        }
+        return labeled;
+    }
+
+    private static long sum(long[] counts) {
+        long sum = 0;
+        for (long count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    private static final class BirthDate {
+        private long persons;
+        private final Map<String, Long> states = new HashMap<>(4);
+    }
+}
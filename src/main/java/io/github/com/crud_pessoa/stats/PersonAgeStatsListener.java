@@ -0,0 +1,26 @@
+package io.github.com.crud_pessoa.stats;
+
+import io.github.com.crud_pessoa.service.PersonChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+
+/**
+ * Applies committed person changes to the age statistics; rolled back writes never reach them.
+ */
+@Component
+public class PersonAgeStatsListener {
+    private final PersonAgeStats stats;
+
+    public PersonAgeStatsListener(PersonAgeStats stats) {
+        this.stats = stats;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        if (!Objects.equals(event.previous(), event.current())) {
+            stats.replace(event.previous(), event.current());
+        }
+    }
+}
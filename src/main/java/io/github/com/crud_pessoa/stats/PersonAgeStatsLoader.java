@@ -0,0 +1,44 @@
+package io.github.com.crud_pessoa.stats;
+
+import io.github.com.crud_pessoa.repository.PersonRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Seeds the age statistics from two GROUP BY queries while the context starts, before the server accepts requests:
+ * unlike the name and CPF indexes, counters cannot absorb a change twice, so no write may race the initial count.
+ * Eager even with lazy initialization for the same reason. Writes made outside the services (plain SQL, for
+ * instance) are only picked up by the next start.
+ */
+@Component
+@Lazy(false)
+public class PersonAgeStatsLoader {
+    private static final Logger log = LoggerFactory.getLogger(PersonAgeStatsLoader.class);
+
+    private final PersonRepository repository;
+    private final PersonAgeStats stats;
+
+    public PersonAgeStatsLoader(PersonRepository repository, PersonAgeStats stats) {
+        this.repository = repository;
+        this.stats = stats;
+    }
+
+    @PostConstruct
+    void load() {
+        long started = System.nanoTime();
+        stats.load(repository.countByDateOfBirth(), repository.countByDateOfBirthAndState(), LocalDate.now());
+        log.info("Person age statistics loaded in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Reads roll the ages over too; this keeps the first read of the day from paying for it.
+    @Scheduled(cron = "${person.stats.rollover-cron:0 0 0 * * *}")
+    void rollOver() {
+        stats.rollOver(LocalDate.now());
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.com.crud_pessoa.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.*;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * A ZIP code as {@code 00000-000} or {@code 00000000}, the strings
+ * {@code @Pattern(regexp = "^[0-9]{5}-[0-9]{3}$|^[0-9]{8}$")} accepts. {@code null} is valid.
+ */
+@Documented
+@Constraint(validatedBy = CepValidator.class)
+@Target({METHOD, FIELD, ANNOTATION_TYPE, CONSTRUCTOR, PARAMETER, TYPE_USE})
+@Retention(RUNTIME)
+public @interface Cep {
+    String message() default "The ZIP code must be in the 00000-000 or 00000000 format";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
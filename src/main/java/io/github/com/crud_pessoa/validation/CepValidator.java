@@ -0,0 +1,26 @@
+package io.github.com.crud_pessoa.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class CepValidator implements ConstraintValidator<Cep, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || isValid(value);
+    }
+
+    static boolean isValid(CharSequence cep) {
+        int length = cep.length();
+        if (length != 8 && length != 9) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = cep.charAt(i);
+            if (length == 9 && i == 5 ? c != '-' : c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
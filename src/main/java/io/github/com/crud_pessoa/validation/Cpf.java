@@ -0,0 +1,27 @@
+package io.github.com.crud_pessoa.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.*;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * A CPF as {@code ddd.ddd.ddd-dd}, {@code ddddddddd-dd} or {@code ddddddddddd}, with matching check digits and not
+ * all eleven digits the same: the strings Hibernate Validator's {@code @CPF} accepts. {@code null} is valid.
+ */
+@Documented
+@Constraint(validatedBy = CpfValidator.class)
+@Target({METHOD, FIELD, ANNOTATION_TYPE, CONSTRUCTOR, PARAMETER, TYPE_USE})
+@Retention(RUNTIME)
+public @interface Cpf {
+    String message() default "Invalid CPF";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
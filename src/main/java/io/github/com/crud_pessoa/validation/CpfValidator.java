@@ -0,0 +1,67 @@
+package io.github.com.crud_pessoa.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Checks a {@link Cpf} in one pass over its characters, computing both check digits along the way, without the
+ * regular expressions and boxed digit lists of Hibernate Validator's {@code @CPF}.
+ */
+public class CpfValidator implements ConstraintValidator<Cpf, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || isValid(value);
+    }
+
+    static boolean isValid(CharSequence cpf) {
+        int length = cpf.length();
+        // bit i set: a separator at index i, the last one a dash and any other a dot
+        int separators;
+        if (length == 11) {
+            separators = 0;
+        } else if (length == 12) {
+            separators = 1 << 9;
+        } else if (length == 14) {
+            separators = 1 << 3 | 1 << 7 | 1 << 11;
+        } else {
+            return false;
+        }
+        char lead = cpf.charAt(0);
+        boolean repeated = true;
+        int first = 0;
+        int second = 0;
+        int position = 0;
+        int firstCheck = 0;
+        int secondCheck = 0;
+        for (int i = 0; i < length; i++) {
+            char c = cpf.charAt(i);
+            if ((separators >>> i & 1) != 0) {
+                if (c != (i == length - 3 ? '-' : '.')) {
+                    return false;
+                }
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            repeated &= c == lead;
+            int digit = c - '0';
+            if (position < 9) {
+                first += digit * (10 - position);
+                second += digit * (11 - position);
+            } else if (position == 9) {
+                firstCheck = digit;
+            } else {
+                secondCheck = digit;
+            }
+            position++;
+        }
+        return !repeated && firstCheck == checkDigit(first) && secondCheck == checkDigit(second + firstCheck * 2);
+    }
+
+    private static int checkDigit(int sum) {
+        int remainder = sum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.com.crud_pessoa.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.*;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * An uppercase ASCII letter followed by anything but line terminators, the strings
+ * {@code @Pattern(regexp = "^[A-Z]+(.)*")} accepts. {@code null} is valid.
+ */
+@Documented
+@Constraint(validatedBy = StartsWithUppercaseValidator.class)
+@Target({METHOD, FIELD, ANNOTATION_TYPE, CONSTRUCTOR, PARAMETER, TYPE_USE})
+@Retention(RUNTIME)
+public @interface StartsWithUppercase {
+    String message() default "The name must start with an uppercase letter and can only contain letters and spaces.";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
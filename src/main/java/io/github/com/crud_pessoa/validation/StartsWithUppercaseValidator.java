@@ -0,0 +1,29 @@
+package io.github.com.crud_pessoa.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class StartsWithUppercaseValidator implements ConstraintValidator<StartsWithUppercase, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || isValid(value);
+    }
+
+    static boolean isValid(CharSequence text) {
+        if (text.isEmpty() || text.charAt(0) < 'A' || text.charAt(0) > 'Z') {
+            return false;
+        }
+        for (int i = 1; i < text.length(); i++) {
+            if (isLineTerminator(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // the characters the regex dot does not match
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.com.crud_pessoa.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.*;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Two uppercase ASCII letters, the strings {@code @Pattern(regexp = "^[A-Z]{2}$")} accepts. {@code null} is valid.
+ */
+@Documented
+@Constraint(validatedBy = UfValidator.class)
+@Target({METHOD, FIELD, ANNOTATION_TYPE, CONSTRUCTOR, PARAMETER, TYPE_USE})
+@Retention(RUNTIME)
+public @interface Uf {
+    String message() default "The state must be a valid two-letter abbreviation (e.g., SP, RJ, CA, NY)";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
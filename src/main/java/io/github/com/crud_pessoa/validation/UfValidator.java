@@ -0,0 +1,20 @@
+package io.github.com.crud_pessoa.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class UfValidator implements ConstraintValidator<Uf, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || isValid(value);
+    }
+
+    static boolean isValid(CharSequence uf) {
+        return uf.length() == 2 && isUppercase(uf.charAt(0)) && isUppercase(uf.charAt(1));
+    }
+
+    private static boolean isUppercase(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.com.crud_pessoa.writebehind;
+
+import io.github.com.crud_pessoa.dto.PersonBatchItemResultDTO;
+import io.github.com.crud_pessoa.exception.CpfAlreadyExistsException;
+import io.github.com.crud_pessoa.exception.CpfMismatchException;
+import io.github.com.crud_pessoa.exception.PreconditionFailedException;
+import io.github.com.crud_pessoa.exception.ResourceNotFoundException;
+import io.github.com.crud_pessoa.model.PersonWrite;
+import io.github.com.crud_pessoa.repository.PersonWriteRepository;
+import io.github.com.crud_pessoa.service.PersonService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Applies drained log entries through {@link PersonService}, so caches, indexes and statistics follow as for any
+ * other write. Each outcome is recorded as a {@link PersonWrite} row in the transaction that applies the entry,
+ * which makes the highest recorded ID an exact checkpoint: an entry is either applied and recorded, or neither.
+ *
+ * <p>Consecutive creates go through {@link PersonService#savePersons} in one transaction, as JDBC batches. Updates
+ * run one per transaction: a rejected update throws, and must not take the rest of a batch down with it.
+ */
+@Component
+@ConditionalOnProperty(name = PersonWriteBehind.ENABLED, havingValue = "true")
+public class PersonWriteApplier {
+    private final PersonService personService;
+    private final PersonWriteRepository writeRepository;
+    private final TransactionTemplate transaction;
+    private final Counter applied;
+    private final Counter rejected;
+
+    public PersonWriteApplier(PersonService personService, PersonWriteRepository writeRepository,
+                              TransactionTemplate transactionTemplate, MeterRegistry registry) {
+        this.personService = personService;
+        this.writeRepository = writeRepository;
+        this.transaction = transactionTemplate;
+        this.applied = outcome(registry, "applied");
+        this.rejected = outcome(registry, "rejected");
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder("person.write-behind.writes")
+                .description("Writes drained from the write-behind log, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Applies the entries in order, skipping those already recorded: a batch that failed halfway (the database
+     * went away, say) is retried as a whole. Throws only for such failures; rejected writes are recorded instead.
+     */
+    public void apply(List<WriteBehindLog.Entry> entries) {
+        Long checkpoint = writeRepository.findMaxId();
+        List<Write> creates = new ArrayList<>();
+        for (WriteBehindLog.Entry entry : entries) {
+            if (checkpoint != null && entry.sequence() <= checkpoint) {
+                continue;
+            }
+            Write write = decode(entry);
+            if (write == null) {
+                // recorded in order: the checkpoint must not move past creates still waiting for their batch
+                applyCreates(creates);
+                reject(entry.sequence(), "Unreadable write");
+            } else if (write.command().type() == PersonWriteCommand.Type.CREATE) {
+                creates.add(write);
+            } else {
+                applyCreates(creates);
+                applyOne(write, w -> personService.updatePerson(w.person(), w.personId(), w.expectedVersion()).id());
+            }
+        }
+        applyCreates(creates);
+    }
+
+    private static Write decode(WriteBehindLog.Entry entry) {
+        try {
+            return new Write(entry.sequence(), PersonWriteCommand.decode(entry.payload()));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void applyCreates(List<Write> creates) {
+        if (creates.isEmpty()) {
+            return;
+        }
+        try {
+            transaction.execute(status -> {
+                List<PersonBatchItemResultDTO> results = personService.savePersons(creates.stream().map(w -> w.command().person()).toList());
+                List<PersonWrite> writes = new ArrayList<>(results.size());
+                for (PersonBatchItemResultDTO result : results) {
+                    long id = creates.get(result.index()).id();
+                    writes.add(result.status() == HttpStatus.CREATED.value()
+                            ? PersonWrite.applied(id, result.person().id())
+                            : PersonWrite.rejected(id, result.message()));
+                }
+                writeRepository.saveAll(writes);
+                writeRepository.flush();
+                return writes;
+            }).forEach(this::count);
+        } catch (RuntimeException e) {
+            if (!isRejection(e)) {
+                throw e;
+            }
+            // a synchronous write got in first (same CPF, say); one at a time, only the loser is rejected
+            creates.forEach(write -> applyOne(write, w -> personService.savePerson(w.person()).id()));
+        }
+        creates.clear();
+    }
+
+    private void applyOne(Write write, Function<PersonWriteCommand, Long> operation) {
+        try {
+            transaction.executeWithoutResult(status -> {
+                Long personId = operation.apply(write.command());
+                writeRepository.save(PersonWrite.applied(write.id(), personId));
+                writeRepository.flush();
+            });
+            applied.increment();
+        } catch (RuntimeException e) {
+            if (!isRejection(e)) {
+                throw e;
+            }
+            reject(write.id(), e.getMessage());
+        }
+    }
+
+    private void reject(long id, String message) {
+        transaction.executeWithoutResult(status -> writeRepository.save(PersonWrite.rejected(id, message)));
+        rejected.increment();
+    }
+
+    private void count(PersonWrite write) {
+        (write.getStatus() == PersonWrite.Status.APPLIED ? applied : rejected).increment();
+    }
+
+    // What a synchronous request would have answered with a 4xx; anything else is worth retrying.
+    private static boolean isRejection(RuntimeException e) {
+        return e instanceof ResourceNotFoundException || e instanceof PreconditionFailedException
+                || e instanceof CpfMismatchException || e instanceof CpfAlreadyExistsException
+                || e instanceof ConstraintViolationException || e instanceof DataIntegrityViolationException
+                || e instanceof OptimisticLockingFailureException;
+    }
+
+    private record Write(long id, PersonWriteCommand command) {
+    }
+}
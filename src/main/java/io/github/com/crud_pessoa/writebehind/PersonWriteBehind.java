@@ -0,0 +1,152 @@
+package io.github.com.crud_pessoa.writebehind;
+
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonWriteStatusDTO;
+import io.github.com.crud_pessoa.exception.ResourceNotFoundException;
+import io.github.com.crud_pessoa.repository.PersonWriteRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Opt-in write-behind mode ({@code person.write-behind.enabled=true}) for creates and updates. An accepted write is
+ * appended to the local {@link WriteBehindLog} and answered right away with its ID; a background drainer applies
+ * the log to the database in batches through {@link PersonWriteApplier}, and {@link #getStatus} reports what became
+ * of each write.
+ *
+ * <p>Nothing is lost if the process dies: at startup the log is reopened at the last write recorded in the
+ * database, and everything after it is drained again.
+ */
+@Service
+@ConditionalOnProperty(name = PersonWriteBehind.ENABLED, havingValue = "true")
+public class PersonWriteBehind {
+    static final String ENABLED = "person.write-behind.enabled";
+    private static final Logger log = LoggerFactory.getLogger(PersonWriteBehind.class);
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+
+    private final WriteBehindLog writeLog;
+    private final PersonWriteApplier applier;
+    private final PersonWriteRepository writeRepository;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final Duration retention;
+    private volatile long drainedUpTo;
+    private volatile boolean running = true;
+    private Thread drainer;
+
+    public PersonWriteBehind(PersonWriteApplier applier, PersonWriteRepository writeRepository, MeterRegistry registry,
+                             @Value("${person.write-behind.dir:${DATA_DIR:./data}/write-behind}") Path directory,
+                             @Value("${person.write-behind.segment-size:64MB}") DataSize segmentSize,
+                             @Value("${person.write-behind.fsync:false}") boolean fsync,
+                             @Value("${person.write-behind.batch-size:500}") int batchSize,
+                             @Value("${person.write-behind.retry-delay:1s}") Duration retryDelay,
+                             @Value("${person.write-behind.retention:7d}") Duration retention) throws IOException {
+        this.applier = applier;
+        this.writeRepository = writeRepository;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.retention = retention;
+        this.drainedUpTo = Objects.requireNonNullElse(writeRepository.findMaxId(), 0L);
+        this.writeLog = WriteBehindLog.open(directory, Math.toIntExact(segmentSize.toBytes()), fsync, drainedUpTo);
+        Gauge.builder("person.write-behind.pending", this, PersonWriteBehind::pending)
+                .description("Writes accepted but not yet applied to the database")
+                .register(registry);
+        if (pending() > 0) {
+            log.info("Replaying {} write-behind entries left from the previous run", pending());
+        }
+    }
+
+    public long submitCreate(PersonRequestDTO person) {
+        return writeLog.append(PersonWriteCommand.create(person).encode());
+    }
+
+    public long submitUpdate(PersonRequestDTO person, Long id, Long expectedVersion) {
+        return writeLog.append(PersonWriteCommand.update(person, id, expectedVersion).encode());
+    }
+
+    public PersonWriteStatusDTO getStatus(long id) {
+        // read before the lookup: a write drained in between is then found by it, never reported missing
+        long drained = drainedUpTo;
+        return writeRepository.findById(id)
+                .map(write -> new PersonWriteStatusDTO(id, write.getStatus().name(), write.getPersonId(), write.getMessage()))
+                .orElseGet(() -> {
+                    if (id > drained && id <= writeLog.lastSequence()) {
+                        return new PersonWriteStatusDTO(id, "PENDING", null, null);
+                    }
+                    throw new ResourceNotFoundException("Write with ID " + id + " not found.");
+                });
+    }
+
+    long pending() {
+        return writeLog.lastSequence() - drainedUpTo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startDraining() {
+        drainer = new Thread(this::drain, "person-write-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    private void drain() {
+        try {
+            while (running) {
+                List<WriteBehindLog.Entry> batch = writeLog.poll(batchSize, POLL_TIMEOUT_MILLIS);
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                applyWithRetry(batch);
+                drainedUpTo = batch.get(batch.size() - 1).sequence();
+                writeLog.release(drainedUpTo);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // the entries stay in the log until applied, so a database outage only delays them
+    private void applyWithRetry(List<WriteBehindLog.Entry> batch) throws InterruptedException {
+        while (true) {
+            try {
+                applier.apply(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Could not apply write-behind entries {} to {}, retrying in {}", batch.get(0).sequence(),
+                        batch.get(batch.size() - 1).sequence(), retryDelay, e);
+                Thread.sleep(retryDelay.toMillis());
+            }
+        }
+    }
+
+    @Scheduled(cron = "${person.write-behind.prune-cron:0 30 3 * * *}")
+    void pruneStatuses() {
+        writeRepository.deleteAppliedBefore(Instant.now().minus(retention));
+    }
+
+    // What is left undrained stays in the log for the next start.
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (drainer != null) {
+            drainer.interrupt();
+            drainer.join(10_000);
+        }
+        writeLog.close();
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.com.crud_pessoa.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+
+import java.io.IOException;
+
+/**
+ * A write as it is stored in the log. {@code personId} and {@code expectedVersion} are only set for an update; a
+ * null {@code expectedVersion} there stands for {@code If-Match: *}. Encoded as CBOR, more compact than the JSON body
+ * it came from.
+ */
+public record PersonWriteCommand(Type type, Long personId, Long expectedVersion, PersonRequestDTO person) {
+    public enum Type { CREATE, UPDATE }
+
+    private static final ObjectMapper CBOR = CBORMapper.builder().findAndAddModules().build();
+
+    static PersonWriteCommand create(PersonRequestDTO person) {
+        return new PersonWriteCommand(Type.CREATE, null, null, person);
+    }
+
+    static PersonWriteCommand update(PersonRequestDTO person, Long id, Long expectedVersion) {
+        return new PersonWriteCommand(Type.UPDATE, id, expectedVersion, person);
+    }
+
+    byte[] encode() {
+        try {
+            return CBOR.writeValueAsBytes(this);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode the write", e);
+        }
+    }
+
+    static PersonWriteCommand decode(byte[] payload) throws IOException {
+        return CBOR.readValue(payload, PersonWriteCommand.class);
+    }
+}
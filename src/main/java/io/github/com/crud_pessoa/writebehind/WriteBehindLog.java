@@ -0,0 +1,231 @@
+package io.github.com.crud_pessoa.writebehind;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of accepted writes, kept in fixed-size memory-mapped segment files named after their first
+ * sequence. Each record is {@code [payload length][CRC32C][sequence][payload]}; the length is written last, so a
+ * record is only seen once it is complete, and a zero length marks the end of a segment.
+ *
+ * <p>An append is a copy into the mapping: once it returns, the bytes are in the OS page cache and survive the JVM
+ * being killed. Surviving a power loss as well needs {@code fsync}, which forces every record to disk before the
+ * append returns, one at a time.
+ *
+ * <p>On {@link #open open} every segment is scanned up to the first record that is incomplete or fails its
+ * checksum (the process died in the middle of the copy), and appends continue from there. A single reader consumes the log in
+ * order through {@link #poll}; {@link #release} deletes the segments it no longer needs.
+ */
+public final class WriteBehindLog implements Closeable {
+    private static final int HEADER_BYTES = 16;
+    private static final String SUFFIX = ".log";
+
+    public record Entry(long sequence, byte[] payload) {
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean fsync;
+    private final List<Segment> segments = new ArrayList<>();
+    private long nextSequence;
+    private Segment reading;
+    private int readPosition;
+
+    private WriteBehindLog(Path directory, int segmentBytes, boolean fsync) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Recovers the log in {@code directory} and positions the reader after {@code drainedUpTo}, the last sequence
+     * already applied to the database. Segments holding only drained entries are deleted.
+     */
+    public static WriteBehindLog open(Path directory, int segmentBytes, boolean fsync, long drainedUpTo) throws IOException {
+        Files.createDirectories(directory);
+        WriteBehindLog log = new WriteBehindLog(directory, segmentBytes, fsync);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        for (Path file : files) {
+            log.segments.add(Segment.recover(file));
+        }
+
+        long last = log.segments.isEmpty() ? 0 : log.segments.get(log.segments.size() - 1).last;
+        log.nextSequence = Math.max(last, drainedUpTo) + 1;
+        if (log.segments.isEmpty() || log.active().last != log.nextSequence - 1) {
+            log.roll();
+        }
+        log.release(drainedUpTo);
+        log.seek(drainedUpTo);
+        return log;
+    }
+
+    public synchronized long append(byte[] payload) {
+        int size = HEADER_BYTES + payload.length;
+        if (payload.length == 0 || size > segmentBytes) {
+            throw new IllegalArgumentException("Write-behind payloads must have between 1 and " + (segmentBytes - HEADER_BYTES) + " bytes");
+        }
+        if (active().position + size > active().capacity()) {
+            roll();
+        }
+        Segment segment = active();
+        int position = segment.position;
+        long sequence = nextSequence++;
+        segment.buffer.putLong(position + 8, sequence);
+        segment.buffer.put(position + HEADER_BYTES, payload);
+        segment.buffer.putInt(position + 4, checksum(segment.buffer, position, payload.length));
+        segment.buffer.putInt(position, payload.length);
+        if (fsync) {
+            segment.buffer.force(position, size);
+        }
+        segment.position += size;
+        segment.last = sequence;
+        notifyAll();
+        return sequence;
+    }
+
+    /**
+     * Up to {@code max} entries after the last one polled, waiting up to {@code timeoutMillis} for one to be
+     * appended if there are none; zero does not wait.
+     */
+    public synchronized List<Entry> poll(int max, long timeoutMillis) throws InterruptedException {
+        if (!hasNext() && timeoutMillis > 0) {
+            wait(timeoutMillis);
+        }
+        List<Entry> entries = new ArrayList<>(Math.min(max, 64));
+        while (entries.size() < max && hasNext()) {
+            int length = reading.buffer.getInt(readPosition);
+            byte[] payload = new byte[length];
+            reading.buffer.get(readPosition + HEADER_BYTES, payload);
+            entries.add(new Entry(reading.buffer.getLong(readPosition + 8), payload));
+            readPosition += HEADER_BYTES + length;
+        }
+        return entries;
+    }
+
+    /**
+     * Deletes the segments whose entries are all at or below {@code drainedUpTo}, except the one being appended to.
+     */
+    public synchronized void release(long drainedUpTo) {
+        while (segments.size() > 1 && segments.get(0).last <= drainedUpTo && segments.get(0) != reading) {
+            Segment drained = segments.remove(0);
+            try {
+                Files.deleteIfExists(drained.file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    @Override
+    public synchronized void close() {
+        // the mappings are released by the GC; without fsync, this at least flushes what a clean stop leaves behind
+        if (!fsync) {
+            active().buffer.force();
+        }
+    }
+
+    private boolean hasNext() {
+        if (readPosition < reading.position) {
+            return true;
+        }
+        int next = segments.indexOf(reading) + 1;
+        if (next < segments.size()) {
+            reading = segments.get(next);
+            readPosition = 0;
+            return readPosition < reading.position;
+        }
+        return false;
+    }
+
+    private void seek(long drainedUpTo) {
+        reading = segments.get(0);
+        readPosition = 0;
+        while (hasNext() && reading.buffer.getLong(readPosition + 8) <= drainedUpTo) {
+            readPosition += HEADER_BYTES + reading.buffer.getInt(readPosition);
+        }
+    }
+
+    private Segment active() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private void roll() {
+        try {
+            Path file = directory.resolve(String.format("%020d%s", nextSequence, SUFFIX));
+            segments.add(Segment.create(file, nextSequence, segmentBytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // over the sequence and the payload
+    private static int checksum(MappedByteBuffer buffer, int position, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position + 8, 8 + length));
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private long last;
+
+        private Segment(Path file, MappedByteBuffer buffer, long first) {
+            this.file = file;
+            this.buffer = buffer;
+            this.last = first - 1;
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        static Segment create(Path file, long first, int bytes) throws IOException {
+            return new Segment(file, map(file, bytes), first);
+        }
+
+        static Segment recover(Path file) throws IOException {
+            long first = Long.parseLong(file.getFileName().toString().replace(SUFFIX, ""));
+            Segment segment = new Segment(file, map(file, Math.toIntExact(Files.size(file))), first);
+            MappedByteBuffer buffer = segment.buffer;
+            while (segment.position + HEADER_BYTES <= buffer.capacity()) {
+                int position = segment.position;
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + HEADER_BYTES + length > buffer.capacity()
+                        || buffer.getLong(position + 8) != segment.last + 1
+                        || buffer.getInt(position + 4) != checksum(buffer, position, length)) {
+                    break;
+                }
+                segment.position += HEADER_BYTES + length;
+                segment.last++;
+            }
+            // Appends resume here, over whatever a torn record left behind. Leftover bytes past a shorter new record
+            // cannot pass the sequence and checksum checks, so the next recovery stops at them too.
+            return segment;
+        }
+
+        private static MappedByteBuffer map(Path file, int bytes) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+-- Schema of the Person and Address entities. From here on every change to it is a new migration;
+-- Hibernate only validates its mappings against the result (ddl-auto: validate).
+
+create sequence pessoa_seq start with 1 increment by 50;
+create sequence endereco_seq start with 1 increment by 50;
+
+create table pessoa (
+    id               bigint       not null,
+    nome             varchar(255) not null,
+    data_aniversario date,
+    cpf              varchar(255),
+    versao           bigint       default 0 not null,
+    constraint pk_pessoa primary key (id),
+    constraint uk_pessoa_cpf unique (cpf)
+);
+
+create index idx_pessoa_nome on pessoa (nome, id);
+create index idx_pessoa_data_aniversario on pessoa (data_aniversario, id);
+
+create table endereco (
+    id        bigint       not null,
+    rua       varchar(255),
+    numero    varchar(255),
+    bairro    varchar(255),
+    cidade    varchar(255),
+    estado    varchar(255),
+    cep       varchar(255),
+    person_id bigint       not null,
+    constraint pk_endereco primary key (id),
+    constraint fk_endereco_pessoa foreign key (person_id) references pessoa (id)
+);
+
+create index idx_endereco_cidade on endereco (cidade, person_id);
+create index idx_endereco_estado on endereco (estado, person_id);
+create index idx_endereco_cep on endereco (cep, person_id);
+create index idx_endereco_person_id on endereco (person_id);
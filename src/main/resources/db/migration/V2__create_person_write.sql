@@ -0,0 +1,11 @@
+-- Outcome of every write accepted in write-behind mode, inserted in the same transaction that applies it.
+-- The highest id doubles as the drain checkpoint: log entries above it are replayed after a restart.
+
+create table person_write (
+    id         bigint        not null,
+    status     varchar(10)   not null,
+    person_id  bigint,
+    message    varchar(1000),
+    applied_at timestamp     not null,
+    constraint pk_person_write primary key (id)
+);
@@ -0,0 +1,17 @@
+-- Transactional outbox: a row per person created, updated or deleted, inserted in the transaction of the change.
+-- change_offset stays null until the single publisher numbers the row, so the offsets clients resume from are
+-- dense and in publication order, whatever order the inserting transactions committed in.
+
+create sequence person_change_seq start with 1 increment by 50;
+
+create table person_change (
+    id            bigint      not null,
+    change_offset bigint,
+    type          varchar(10) not null,
+    person_id     bigint      not null,
+    changed_at    timestamp   not null,
+    constraint pk_person_change primary key (id),
+    constraint uk_person_change_offset unique (change_offset)
+);
+
+create index idx_person_change_unpublished on person_change (change_offset, id);
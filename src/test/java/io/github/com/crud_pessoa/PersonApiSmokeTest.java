@@ -0,0 +1,315 @@
+package io.github.com.crud_pessoa;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.github.com.crud_pessoa.repository.PersonRepository;
+import io.github.com.crud_pessoa.service.PersonService;
+import io.github.com.crud_pessoa.stats.AgeBracket;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The controller scenarios over real HTTP, against the full application instead of mocks. Besides the JVM build,
+ * this runs inside a native image with {@code mvn -PnativeTest test}, which is where missing reachability metadata
+ * shows up: JSON binding, validation, projections and the exception handler are all exercised.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PersonApiSmokeTest {
+    private static final String JOSIAS = """
+            {"name":"Josias Barreto","dateOfBirth":"1994-09-24","cpf":"128.363.000-19","addresses":[
+              {"street":"Avenida José Carlos Pereira Pinto","number":"178-A","neighborhood":"Parque Guarus",
+               "city":"Campos dos Goytacazes","state":"RJ","zipCode":"28143-000"}]}""";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private RestClient client;
+
+    @BeforeEach
+    void setup() {
+        client = RestClient.builder()
+                .baseUrl("http://localhost:" + port + "/person")
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .defaultStatusHandler(status -> true, (request, response) -> {
+                })
+                .build();
+    }
+
+    @AfterEach
+    void cleanup() {
+        // through the service, which also releases the CPFs and evicts the cached lookups
+        personRepository.findAll().forEach(person -> personService.deletePerson(person.getId()));
+    }
+
+    @Test
+    @DisplayName("Deve criar, consultar, atualizar e deletar uma pessoa respeitando os ETags")
+    void shouldRunThePersonLifecycle() throws Exception {
+        ResponseEntity<String> created = post("", JOSIAS);
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        JsonNode person = json(created);
+        long id = person.get("id").asLong();
+        String etag = created.getHeaders().getETag();
+        assertEquals("\"" + person.get("version").asLong() + "\"", etag);
+
+        ResponseEntity<String> found = client.get().uri("/{id}", id).retrieve().toEntity(String.class);
+        assertEquals(HttpStatus.OK, found.getStatusCode());
+        assertEquals("128.363.000-19", json(found).get("cpf").asText());
+        double hits = jsonCacheHits();
+        ResponseEntity<String> cached = client.get().uri("/{id}", id).retrieve().toEntity(String.class);
+        assertEquals(found.getBody(), cached.getBody());
+        assertEquals(cached.getBody().getBytes(StandardCharsets.UTF_8).length, cached.getHeaders().getContentLength());
+        assertEquals(hits + 1, jsonCacheHits());
+        assertEquals(HttpStatus.NOT_MODIFIED, client.get().uri("/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag)
+                .retrieve().toBodilessEntity().getStatusCode());
+
+        String renamed = JOSIAS.replace("Josias Barreto", "Josias B. Barreto");
+        assertEquals(HttpStatus.PRECONDITION_REQUIRED, put(id, renamed, null).getStatusCode());
+        ResponseEntity<String> updated = put(id, renamed, etag);
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertEquals("Josias B. Barreto", json(updated).get("name").asText());
+        assertEquals("Josias B. Barreto", json(client.get().uri("/{id}", id).retrieve().toEntity(String.class)).get("name").asText());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, put(id, JOSIAS, etag).getStatusCode());
+
+        ResponseEntity<String> patched = client.patch().uri("/{id}", id)
+                .contentType(MediaType.parseMediaType("application/merge-patch+json"))
+                .header(HttpHeaders.IF_MATCH, updated.getHeaders().getETag())
+                .body("{\"name\":\"Josias Barreto\"}")
+                .retrieve().toEntity(String.class);
+        assertEquals(HttpStatus.OK, patched.getStatusCode());
+        assertEquals(person.get("version").asLong() + 2, json(patched).get("version").asLong());
+
+        assertEquals(HttpStatus.OK, client.get().uri("/age/{id}", id).retrieve().toBodilessEntity().getStatusCode());
+        assertEquals(HttpStatus.NO_CONTENT, client.delete().uri("/{id}", id).retrieve().toBodilessEntity().getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, client.get().uri("/{id}", id).retrieve().toBodilessEntity().getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Deve listar, buscar e exportar as pessoas cadastradas")
+    void shouldListSearchAndExport() throws Exception {
+        long id = json(post("", JOSIAS)).get("id").asLong();
+
+        JsonNode page = json(client.get().uri("?page=0&size=10").retrieve().toEntity(String.class));
+        assertEquals(id, page.get("content").get(0).get("id").asLong());
+        JsonNode cursor = json(client.get().uri("/cursor?size=10").retrieve().toEntity(String.class));
+        assertEquals(id, cursor.get("content").get(0).get("id").asLong());
+        JsonNode search = json(client.get().uri("/search?name=Josias&state=RJ").retrieve().toEntity(String.class));
+        assertEquals(id, search.get("content").get(0).get("id").asLong());
+
+        String export = client.get().uri("/export").retrieve().body(String.class);
+        assertEquals(id, objectMapper.readTree(export.lines().findFirst().orElseThrow()).get("id").asLong());
+    }
+
+    @Test
+    @DisplayName("Deve contar a pessoa criada na faixa etária e no estado dela")
+    void shouldCountCreatedPersonInStats() throws Exception {
+        String bracket = AgeBracket.of(LocalDate.of(1994, 9, 24), LocalDate.now()).label();
+        long before = json(client.get().uri("/stats/age-distribution").retrieve().toEntity(String.class)).get("brackets").get(bracket).asLong();
+
+        post("", JOSIAS);
+
+        assertEquals(before + 1, json(client.get().uri("/stats/age-distribution").retrieve().toEntity(String.class)).get("brackets").get(bracket).asLong());
+        JsonNode states = json(client.get().uri("/stats/by-state").retrieve().toEntity(String.class));
+        JsonNode rj = null;
+        for (JsonNode state : states) {
+            if (state.get("state").asText().equals("RJ")) {
+                rj = state;
+            }
+        }
+        assertNotNull(rj, states.toString());
+        assertTrue(rj.get("brackets").get(bracket).asLong() >= 1);
+    }
+
+    @Test
+    @DisplayName("Deve responder em CBOR quando o cliente pedir e em JSON por padrão")
+    void shouldNegotiateCbor() throws Exception {
+        long id = json(post("", JOSIAS)).get("id").asLong();
+
+        ResponseEntity<byte[]> page = client.get().uri("?page=0&size=10").accept(MediaType.APPLICATION_CBOR)
+                .retrieve().toEntity(byte[].class);
+        assertEquals(MediaType.APPLICATION_CBOR, page.getHeaders().getContentType());
+        JsonNode person = new CBORMapper().readTree(page.getBody()).get("content").get(0);
+        assertEquals(id, person.get("id").asLong());
+        assertEquals("1994-09-24", person.get("dateOfBirth").asText());
+        assertEquals("RJ", person.get("addresses").get(0).get("state").asText());
+
+        ResponseEntity<byte[]> single = client.get().uri("/{id}", id).accept(MediaType.APPLICATION_CBOR)
+                .retrieve().toEntity(byte[].class);
+        assertEquals(MediaType.APPLICATION_CBOR, single.getHeaders().getContentType());
+        assertEquals(id, new CBORMapper().readTree(single.getBody()).get("id").asLong());
+
+        ResponseEntity<String> byDefault = client.get().uri("/{id}", id).retrieve().toEntity(String.class);
+        assertEquals(MediaType.APPLICATION_JSON, byDefault.getHeaders().getContentType());
+    }
+
+    @Test
+    @DisplayName("Deve recusar CPF inválido com 400 e CPF repetido com 409")
+    void shouldRejectInvalidAndDuplicatedCpf() throws Exception {
+        assertEquals(HttpStatus.BAD_REQUEST, post("", JOSIAS.replace("128.363.000-19", "111.111.111-12")).getStatusCode());
+
+        assertEquals(HttpStatus.CREATED, post("", JOSIAS).getStatusCode());
+        ResponseEntity<String> duplicated = post("", JOSIAS);
+        assertEquals(HttpStatus.CONFLICT, duplicated.getStatusCode());
+        assertTrue(json(duplicated).get("message").asText().contains("128.363.000-19"));
+
+        ResponseEntity<String> batch = post("/batch", "[" + JOSIAS.replace("128.363.000-19", "428.209.060-01") + "," + JOSIAS + "]");
+        assertEquals(HttpStatus.MULTI_STATUS, batch.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Deve criar uma única pessoa quando o mesmo POST com Idempotency-Key chega em paralelo")
+    void shouldCreateOncePerIdempotencyKey() throws Exception {
+        ExecutorService retries = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(retries.submit(() -> client.post().contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotency-Key", "smoke-retry").body(JOSIAS).retrieve().toEntity(String.class)));
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Future<ResponseEntity<String>> response : responses) {
+                assertEquals(HttpStatus.CREATED, response.get().getStatusCode());
+                ids.add(json(response.get()).get("id").asLong());
+            }
+            assertEquals(1, ids.size());
+            assertEquals(1, personRepository.count());
+        } finally {
+            retries.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve aceitar apenas um de vários POSTs paralelos com o mesmo CPF")
+    void shouldAcceptOnlyOneOfParallelCreatesWithSameCpf() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(clients.submit(() -> post("", JOSIAS)));
+            }
+            int created = 0;
+            for (Future<ResponseEntity<String>> response : responses) {
+                if (response.get().getStatusCode() == HttpStatus.CREATED) {
+                    created++;
+                } else {
+                    assertEquals(HttpStatus.CONFLICT, response.get().getStatusCode());
+                }
+            }
+            assertEquals(1, created);
+            assertEquals(1, personRepository.count());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve transmitir as mudanças por SSE e retomar a partir do último evento recebido")
+    void shouldStreamChangesAndResumeAfterLastEvent() throws Exception {
+        long created;
+        long id;
+        try (Stream<String> stream = changes(null)) {
+            id = json(post("", JOSIAS)).get("id").asLong();
+            JsonNode change = nextChange(stream.iterator(), id);
+            assertEquals("CREATED", change.get("type").asText());
+            created = change.get("offset").asLong();
+        }
+
+        assertEquals(HttpStatus.NO_CONTENT, client.delete().uri("/{id}", id).retrieve().toBodilessEntity().getStatusCode());
+
+        try (Stream<String> stream = changes(created)) {
+            JsonNode change = nextChange(stream.iterator(), id);
+            assertEquals("DELETED", change.get("type").asText());
+            assertTrue(change.get("offset").asLong() > created);
+        }
+        assertEquals(HttpStatus.GONE, client.get().uri("/changes?after=-5").retrieve().toBodilessEntity().getStatusCode());
+    }
+
+    // the response arrives with the headers, before any change: the stream opens with a comment
+    private Stream<String> changes(Long lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/person/changes"))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", String.valueOf(lastEventId));
+        }
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(HttpStatus.OK.value(), response.statusCode());
+        return response.body();
+    }
+
+    private JsonNode nextChange(Iterator<String> lines, long personId) {
+        return assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (true) {
+                String line = lines.next();
+                if (line.startsWith("data:")) {
+                    JsonNode change = objectMapper.readTree(line.substring("data:".length()));
+                    if (change.get("personId").asLong() == personId) {
+                        return change;
+                    }
+                }
+            }
+        });
+    }
+
+    private ResponseEntity<String> post(String path, String body) {
+        return client.post().uri(path).contentType(MediaType.APPLICATION_JSON).body(body).retrieve().toEntity(String.class);
+    }
+
+    private ResponseEntity<String> put(long id, String body, String ifMatch) {
+        RestClient.RequestBodySpec request = client.put().uri("/{id}", id).contentType(MediaType.APPLICATION_JSON);
+        if (ifMatch != null) {
+            request.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+        return request.body(body).retrieve().toEntity(String.class);
+    }
+
+    private double jsonCacheHits() {
+        return meterRegistry.get("cache.gets").tag("cache", "personJson").tag("result", "hit").functionCounter().count();
+    }
+
+    private JsonNode json(ResponseEntity<String> response) throws Exception {
+        return objectMapper.readTree(response.getBody());
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.com.crud_pessoa;
+
+import io.github.com.crud_pessoa.dto.AddressRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.service.PersonService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.aot.DisabledInAotMode;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// boots the main application context with another profile, which the AOT-generated test contexts do not cover
+@DisabledInAotMode
+class ProdProfileTest {
+    @TempDir
+    Path dataDir;
+
+    @Test
+    @DisplayName("Deve manter as pessoas salvas no perfil prod depois de reiniciar a aplicação")
+    void shouldKeepPersonsAcrossRestarts() {
+        PersonResponseDTO saved;
+        try (ConfigurableApplicationContext context = start()) {
+            saved = context.getBean(PersonService.class).savePerson(new PersonRequestDTO("Josias Barreto", LocalDate.of(1994, 9, 24), "128.363.000-19",
+                    List.of(new AddressRequestDTO(null, "Avenida José Carlos Pereira Pinto", "178-A", "Parque Guarus", "Campos dos Goytacazes", "RJ", "28143-000"))));
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals(saved, context.getBean(PersonService.class).getPersonById(saved.id()));
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=prod", "--DATA_DIR=" + dataDir);
+    }
+}
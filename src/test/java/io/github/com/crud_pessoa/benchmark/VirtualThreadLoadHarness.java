@@ -0,0 +1,159 @@
+package io.github.com.crud_pessoa.benchmark;
+
+import io.github.com.crud_pessoa.Application;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load harness comparing Tomcat on platform threads with Tomcat on virtual threads while every SQL statement is
+ * delayed to simulate a slow database. Not a test: run it with a JDK 21 runtime, e.g.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=io.github.com.crud_pessoa.benchmark.VirtualThreadLoadHarness \
+ *     -Dexec.args="--latency-ms=50 --requests=5000 --concurrency=1000"
+ * </pre>
+ * Both modes run with the same Hikari pool size and Tomcat thread limit, so the difference comes from how many
+ * requests can wait on the database at the same time.
+ */
+public class VirtualThreadLoadHarness {
+    private static long latencyMs = 50;
+
+    public static void main(String[] args) throws Exception {
+        int requests = 5000;
+        int concurrency = 1000;
+        int poolSize = 200;
+        int tomcatThreads = 200;
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            switch (kv[0]) {
+                case "latency-ms" -> latencyMs = Long.parseLong(kv[1]);
+                case "requests" -> requests = Integer.parseInt(kv[1]);
+                case "concurrency" -> concurrency = Integer.parseInt(kv[1]);
+                case "pool-size" -> poolSize = Integer.parseInt(kv[1]);
+                case "tomcat-threads" -> tomcatThreads = Integer.parseInt(kv[1]);
+                default -> throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        if (Runtime.version().feature() < 21) {
+            System.out.println("WARNING: Java " + Runtime.version() + " has no virtual threads, both runs will use platform threads");
+        }
+        System.out.printf("latency=%dms requests=%d concurrency=%d pool=%d tomcatThreads=%d%n",
+                latencyMs, requests, concurrency, poolSize, tomcatThreads);
+
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(virtual, poolSize, tomcatThreads)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                run(virtual ? "virtual " : "platform", port, requests, concurrency);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual, int poolSize, int tomcatThreads) {
+        SpringApplication app = new SpringApplication(Application.class, LatencyConfig.class);
+        return app.run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.datasource.hikari.connection-timeout=60000",
+                "--server.tomcat.threads.max=" + tomcatThreads,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+    }
+
+    private static void run(String mode, int port, int requests, int concurrency) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build();
+        URI uri = URI.create("http://localhost:" + port + "/person?page=0&size=10");
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            futures[i] = client.sendAsync(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).build(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (error != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("%s: %.0f req/s, p50=%dms p99=%dms, errors=%d%n", mode, requests / seconds,
+                latencies[requests / 2] / 1_000_000, latencies[(int) (requests * 0.99)] / 1_000_000, errors.get());
+    }
+
+    // Deliberately not a @Configuration: it lives under the application package and must not be component-scanned
+    // into other contexts. It is only registered as an explicit source by start().
+    static class LatencyConfig {
+        @Bean
+        static BeanPostProcessor latencyInjectingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                            (proxy, method, methodArgs) -> {
+                                Object result = invoke(dataSource, method, methodArgs);
+                                return result instanceof Connection connection ? slow(connection) : result;
+                            });
+                }
+            };
+        }
+
+        // Delays the execution of every statement created from the connection.
+        private static Connection slow(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (!(result instanceof Statement statement)) {
+                            return result;
+                        }
+                        Class<?> type = method.getReturnType().isInterface() ? method.getReturnType() : Statement.class;
+                        return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{type},
+                                (p, m, a) -> {
+                                    if (m.getName().startsWith("execute")) {
+                                        Thread.sleep(latencyMs);
+                                    }
+                                    return invoke(statement, m, a);
+                                });
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,32 +1,52 @@
 package io.github.com.crud_pessoa.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.com.crud_pessoa.dto.AddressRequestDTO;
 import io.github.com.crud_pessoa.dto.AddressResponseDTO;
+import io.github.com.crud_pessoa.dto.CursorPageResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonBatchItemResultDTO;
 import io.github.com.crud_pessoa.dto.PersonRequestDTO;
 import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonSearchFilterDTO;
 import io.github.com.crud_pessoa.exception.CpfAlreadyExistsException;
+import io.github.com.crud_pessoa.exception.PreconditionFailedException;
+import io.github.com.crud_pessoa.exception.PreconditionRequiredException;
 import io.github.com.crud_pessoa.exception.ResourceNotFoundException;
+import io.github.com.crud_pessoa.service.IdempotencyStore;
 import io.github.com.crud_pessoa.service.PersonService;
+import io.github.com.crud_pessoa.writebehind.PersonWriteBehind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+// Mockito creates its mocks at runtime, which a native image cannot do
+@DisabledInAotMode
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Controller Unit Tests")
 class PersonControllerTest {
@@ -37,6 +57,15 @@ class PersonControllerTest {
     @Mock
     private PersonService personService;
 
+    @Mock
+    private ObjectProvider<PersonWriteBehind> writeBehind;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
     private PersonResponseDTO personResponseDTO;
     private PersonRequestDTO personRequestUpdate;
     private PersonRequestDTO personRequestCreate;
@@ -130,7 +159,8 @@ class PersonControllerTest {
                                 "RJ",
                                 "28015-000"
                         )
-                )
+                ),
+                0L
         );
     }
 
@@ -139,22 +169,36 @@ class PersonControllerTest {
     void shouldReturnSpecificPersonWithStatusOkWhenFound() {
         when(personService.getPersonById(validPersonId)).thenReturn(personResponseDTO);
 
-        ResponseEntity<PersonResponseDTO> response = personController.getPersonById(validPersonId);
+        ResponseEntity<PersonResponseDTO> response = personController.getPersonById(validPersonId, null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(personResponseDTO, response.getBody());
+        assertEquals("\"0\"", response.getHeaders().getETag());
         verify(personService, times(1)).getPersonById(1L);
     }
 
+    @Test
+    @DisplayName("Deve retornar 304 sem carregar a pessoa quando o ETag enviado ainda for o atual")
+    void shouldReturnNotModifiedWhenETagIsCurrent() {
+        when(personService.getPersonVersion(validPersonId)).thenReturn(4L);
+
+        ResponseEntity<PersonResponseDTO> response = personController.getPersonById(validPersonId, "\"3\", W/\"4\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(personService, never()).getPersonById(any());
+    }
+
     @Test
     @DisplayName("Deve retornar uma exceção quando o ID da pessoa não for encontrado")
     void shouldReturnExceptionWhenPersonIdNotFound() {
         when(personService.getPersonById(invalidPersonId)).thenThrow(new ResourceNotFoundException("Person with ID " + invalidPersonId + " not found."));
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
-            personController.getPersonById(invalidPersonId);
+            personController.getPersonById(invalidPersonId, null);
         });
 
         assertEquals("Person with ID " + invalidPersonId + " not found.", exception.getMessage());
@@ -164,7 +208,7 @@ class PersonControllerTest {
     @Test
     @DisplayName("Deve retornar uma página de pessoas com status OK")
     void shouldReturnPageOfPersonsWithStatusOk() {
-        var listOfPersons = List.of(new PersonResponseDTO(validPersonId, "John Doe", LocalDate.of(2000, 1, 1), "926.591.480-74", List.of(new AddressResponseDTO(1L, "Rua Alvorada", "194", "Pelinca", "Campos dos Goytacazes", "RJ", "28015-000"))), new PersonResponseDTO(2L, "Jane Smith", LocalDate.of(1995, 5, 15), "123.456.789-00", List.of(new AddressResponseDTO(2L, "Rua das Flores", "1293-A", "Centro", "Rio de Janeiro", "RJ", "20000000"))));
+        var listOfPersons = List.of(new PersonResponseDTO(validPersonId, "John Doe", LocalDate.of(2000, 1, 1), "926.591.480-74", List.of(new AddressResponseDTO(1L, "Rua Alvorada", "194", "Pelinca", "Campos dos Goytacazes", "RJ", "28015-000")), 0L), new PersonResponseDTO(2L, "Jane Smith", LocalDate.of(1995, 5, 15), "123.456.789-00", List.of(new AddressResponseDTO(2L, "Rua das Flores", "1293-A", "Centro", "Rio de Janeiro", "RJ", "20000000")), 0L));
 
         Pageable pageable = PageRequest.of(0, 10); // página 0, tamanho 10
         Page<PersonResponseDTO> pagedPersons = new PageImpl<>(listOfPersons, pageable, listOfPersons.size());
@@ -180,6 +224,58 @@ class PersonControllerTest {
         verify(personService, times(1)).getAllPersons(0, 10);
     }
 
+    @Test
+    @DisplayName("Deve retornar uma página por cursor com status OK")
+    void shouldReturnCursorPageOfPersonsWithStatusOk() {
+        var cursorPage = new CursorPageResponseDTO<>(List.of(personResponseDTO), 1, true, "aWQ6MQ");
+
+        when(personService.getPersonsAfter(null, 1)).thenReturn(cursorPage);
+
+        ResponseEntity<CursorPageResponseDTO<PersonResponseDTO>> response = personController.listPersonsByCursor(null, 1);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(cursorPage, response.getBody());
+        verify(personService, times(1)).getPersonsAfter(null, 1);
+    }
+
+    @Test
+    @DisplayName("Deve buscar pessoas pelos filtros e retornar uma página por cursor")
+    void shouldSearchPersonsAndReturnCursorPage() {
+        var filter = new PersonSearchFilterDTO(null, null, "Campos dos Goytacazes", "RJ", null, null, null);
+        var cursorPage = new CursorPageResponseDTO<>(List.of(personResponseDTO), 10, false, null);
+        when(personService.searchPersons(filter, null, 10)).thenReturn(cursorPage);
+
+        ResponseEntity<CursorPageResponseDTO<PersonResponseDTO>> response = personController.searchPersons(filter, null, 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(cursorPage, response.getBody());
+        verify(personService, times(1)).searchPersons(filter, null, 10);
+    }
+
+    @Test
+    @DisplayName("Deve exportar as pessoas como JSON delimitado por linhas")
+    @SuppressWarnings("unchecked")
+    void shouldExportPersonsAsNewlineDelimitedJson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<PersonResponseDTO> consumer = invocation.getArgument(0);
+            consumer.accept(personResponseDTO);
+            consumer.accept(personResponseDTO);
+            return null;
+        }).when(personService).exportPersons(any(Consumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = personController.exportPersons(new MockHttpServletRequest());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        assertEquals(2, lines.length);
+        assertEquals(personResponseDTO, objectMapper.readValue(lines[0], PersonResponseDTO.class));
+        assertEquals(personResponseDTO, objectMapper.readValue(lines[1], PersonResponseDTO.class));
+    }
+
     @Test
     @DisplayName("Deve deletar uma pessoa com sucesso e retornar status NO_CONTENT")
     void shouldDeletePersonSuccessfullyAndReturnNoContent() {
@@ -193,28 +289,49 @@ class PersonControllerTest {
     @Test
     @DisplayName("Deve atualizar uma pessoa com sucesso e retornar a pessoa atualizada")
     void shouldUpdatePersonSuccessfullyAndReturnUpdatedPerson() {
-        when(personService.updatePerson(personRequestUpdate, validPersonId)).thenReturn(personResponseDTO);
+        when(personService.updatePerson(personRequestUpdate, validPersonId, 0L)).thenReturn(personResponseDTO);
 
-        ResponseEntity<PersonResponseDTO> response = personController.updatePerson(personRequestUpdate, validPersonId);
+        ResponseEntity<PersonResponseDTO> response = personController.updatePerson(personRequestUpdate, validPersonId, "\"0\"", null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(personResponseDTO, response.getBody());
-        verify(personService, times(1)).updatePerson(personRequestUpdate, validPersonId);
+        verify(personService, times(1)).updatePerson(personRequestUpdate, validPersonId, 0L);
     }
 
     @Test
     @DisplayName("Deve retornar uma exceção quando o ID da pessoa não for encontrado ao atualizar")
     void shouldReturnExceptionWhenPersonIdNotFoundOnUpdate() {
-        when(personService.updatePerson(personRequestUpdate, invalidPersonId)).thenThrow(new ResourceNotFoundException("Person with ID " + invalidPersonId + " not found."));
+        when(personService.updatePerson(personRequestUpdate, invalidPersonId, 0L)).thenThrow(new ResourceNotFoundException("Person with ID " + invalidPersonId + " not found."));
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
-            personController.updatePerson(personRequestUpdate, invalidPersonId);
+            personController.updatePerson(personRequestUpdate, invalidPersonId, "\"0\"", null);
         });
 
         assertEquals("Person with ID " + invalidPersonId + " not found.", exception.getMessage());
-        verify(personService, times(1)).updatePerson(personRequestUpdate, invalidPersonId);
+        verify(personService, times(1)).updatePerson(personRequestUpdate, invalidPersonId, 0L);
+    }
+
+    @Test
+    @DisplayName("Deve exigir o If-Match ao atualizar e recusar ETags fracos")
+    void shouldRequireStrongIfMatchOnUpdate() {
+        assertThrows(PreconditionRequiredException.class, () -> personController.updatePerson(personRequestUpdate, validPersonId, null, null));
+        assertThrows(PreconditionFailedException.class, () -> personController.updatePerson(personRequestUpdate, validPersonId, "W/\"0\"", null));
+        verifyNoInteractions(personService);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar um merge patch e retornar a pessoa atualizada")
+    void shouldPatchPersonAndReturnUpdatedPerson() throws Exception {
+        var patch = objectMapper.readTree("{\"name\":\"John Doe\"}");
+        when(personService.patchPerson(patch, validPersonId, 0L)).thenReturn(personResponseDTO);
+
+        ResponseEntity<PersonResponseDTO> response = personController.patchPerson(patch, validPersonId, "\"0\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(personResponseDTO, response.getBody());
+        verify(personService, times(1)).patchPerson(patch, validPersonId, 0L);
     }
 
     @Test
@@ -222,7 +339,7 @@ class PersonControllerTest {
     void shouldCreatePersonAndReturnSuccess() {
         when(personService.savePerson(personRequestCreate)).thenReturn(personResponseDTO);
 
-        ResponseEntity<PersonResponseDTO> response = personController.createPerson(personRequestCreate);
+        ResponseEntity<PersonResponseDTO> response = personController.createPerson(personRequestCreate, null, null);
 
         assertNotNull(response);
         assertEquals(personResponseDTO, response.getBody());
@@ -230,6 +347,77 @@ class PersonControllerTest {
         verify(personService, times(1)).savePerson(personRequestCreate);
     }
 
+    @Test
+    @DisplayName("Deve aceitar a criação em segundo plano com Prefer: respond-async e retornar o Status Code 202")
+    void shouldAcceptCreateForWriteBehind() {
+        PersonWriteBehind async = mock(PersonWriteBehind.class);
+        when(writeBehind.getIfAvailable()).thenReturn(async);
+        when(async.submitCreate(personRequestCreate)).thenReturn(42L);
+
+        ResponseEntity<PersonResponseDTO> response = personController.createPerson(personRequestCreate, null, "return=minimal, respond-async");
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/person/writes/42", response.getHeaders().getLocation().toString());
+        assertEquals(PersonController.RESPOND_ASYNC, response.getHeaders().getFirst("Preference-Applied"));
+        assertNull(response.getBody());
+        verifyNoInteractions(personService);
+    }
+
+    @Test
+    @DisplayName("Deve criar de forma síncrona com Prefer: respond-async quando o write-behind estiver desligado")
+    void shouldCreateSynchronouslyWhenWriteBehindIsDisabled() {
+        when(writeBehind.getIfAvailable()).thenReturn(null);
+        when(personService.savePerson(personRequestCreate)).thenReturn(personResponseDTO);
+
+        ResponseEntity<PersonResponseDTO> response = personController.createPerson(personRequestCreate, null, "respond-async");
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(personResponseDTO, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Deve repetir a resposta original sem criar de novo quando a Idempotency-Key se repetir")
+    void shouldReplayCreateWithSameIdempotencyKey() {
+        when(personService.savePerson(personRequestCreate)).thenReturn(personResponseDTO);
+
+        ResponseEntity<PersonResponseDTO> first = personController.createPerson(personRequestCreate, "retry-1", null);
+        ResponseEntity<PersonResponseDTO> retry = personController.createPerson(personRequestCreate, "retry-1", null);
+
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals(first.getHeaders().getETag(), retry.getHeaders().getETag());
+        assertEquals("false", first.getHeaders().getFirst(PersonController.IDEMPOTENT_REPLAYED));
+        assertEquals("true", retry.getHeaders().getFirst(PersonController.IDEMPOTENT_REPLAYED));
+        verify(personService, times(1)).savePerson(personRequestCreate);
+    }
+
+    @Test
+    @DisplayName("Deve criar um lote de pessoas e retornar 201 quando todos os itens forem criados")
+    void shouldCreateBatchAndReturnCreatedWhenAllItemsSucceed() {
+        var results = List.of(new PersonBatchItemResultDTO(0, 201, personResponseDTO, null));
+        when(personService.savePersons(List.of(personRequestCreate))).thenReturn(results);
+
+        ResponseEntity<List<PersonBatchItemResultDTO>> response = personController.createPersons(List.of(personRequestCreate));
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(results, response.getBody());
+        verify(personService, times(1)).savePersons(List.of(personRequestCreate));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 207 quando parte do lote for rejeitada")
+    void shouldReturnMultiStatusWhenPartOfBatchIsRejected() {
+        var results = List.of(
+                new PersonBatchItemResultDTO(0, 201, personResponseDTO, null),
+                new PersonBatchItemResultDTO(1, 409, null, "Duplicated CPF in the batch: " + personRequestCreate.cpf()));
+        when(personService.savePersons(List.of(personRequestCreate, personRequestCreate))).thenReturn(results);
+
+        ResponseEntity<List<PersonBatchItemResultDTO>> response = personController.createPersons(List.of(personRequestCreate, personRequestCreate));
+
+        assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+        assertEquals(results, response.getBody());
+    }
+
     @Test
     @DisplayName("Deve lançar um exceção ao criar ao criar uma pessoa com CPF inválido")
     void shouldThrowExceptionWhenCreatingPersonWithInvalidCPF() {
@@ -238,7 +426,7 @@ class PersonControllerTest {
         when(personService.savePerson(personRequestDTO)).thenThrow(new IllegalArgumentException("Invalid CPF"));
 
         Exception exception = assertThrows(RuntimeException.class, () -> {
-            personController.createPerson(personRequestDTO);
+            personController.createPerson(personRequestDTO, null, null);
         });
 
         assertEquals("Invalid CPF", exception.getMessage());
@@ -251,7 +439,7 @@ class PersonControllerTest {
         when(personService.savePerson(personRequestCreate)).thenThrow(new CpfAlreadyExistsException("There is already a registered user with the CPF provided: " + personRequestCreate.cpf()));
 
         Exception exception = assertThrows(CpfAlreadyExistsException.class, () -> {
-            personController.createPerson(personRequestCreate);
+            personController.createPerson(personRequestCreate, null, null);
         });
 
         assertEquals("There is already a registered user with the CPF provided: " + personRequestCreate.cpf(), exception.getMessage());
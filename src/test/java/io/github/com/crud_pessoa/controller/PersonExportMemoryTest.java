@@ -0,0 +1,155 @@
+package io.github.com.crud_pessoa.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.com.crud_pessoa.Application;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.aot.DisabledInAotMode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streams a million persons from GET /person/export out of an application running in a 64 MB heap, with an async
+ * request timeout far shorter than the export: every row must arrive, so neither the database result nor the
+ * response is held in memory, and the timeout does not cut the stream off.
+ */
+// boots the main application context in a separate JVM, which the AOT-generated test contexts do not cover
+@DisabledInAotMode
+class PersonExportMemoryTest {
+    private static final int ROWS = 1_000_000;
+    private static final int CHUNK = 50_000;
+    private static final long ASYNC_TIMEOUT_MS = 500;
+    private static final String READY = "READY ";
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    @DisplayName("Deve exportar um milhão de pessoas com 64 MB de heap e além do timeout assíncrono configurado")
+    void shouldExportAMillionPersonsInASmallHeapPastTheAsyncTimeout() throws Exception {
+        Path seederLog = dataDir.resolve("seeder.log");
+        Process seeder = java(seederLog, Seeder.class);
+        assertTrue(seeder.waitFor(10, TimeUnit.MINUTES), "the seeder did not finish\n" + Files.readString(seederLog));
+        assertEquals(0, seeder.exitValue(), Files.readString(seederLog));
+
+        Path log = dataDir.resolve("exporter.log");
+        Process exporter = java(log, Exporter.class, "-Xmx64m", "-XX:+ExitOnOutOfMemoryError");
+        try {
+            int port = awaitReady(exporter, log);
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/person/export")).build();
+            long started = System.nanoTime();
+            HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofLines());
+            assertEquals(200, response.statusCode());
+
+            ObjectMapper objectMapper = new ObjectMapper();
+            long lines = 0;
+            long lastId = 0;
+            try (Stream<String> body = response.body()) {
+                for (Iterator<String> it = body.iterator(); it.hasNext(); ) {
+                    String line = it.next();
+                    if (++lines % CHUNK == 0 || lines == ROWS) {
+                        lastId = objectMapper.readTree(line).get("id").asLong();
+                    }
+                }
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+            assertTrue(exporter.isAlive(), "the exporter died\n" + Files.readString(log));
+            assertEquals(ROWS, lines, Files.readString(log));
+            assertEquals(ROWS, lastId);
+            assertTrue(elapsedMs > ASYNC_TIMEOUT_MS, "the export took " + elapsedMs + " ms, too fast to outlive the timeout");
+        } finally {
+            exporter.destroyForcibly().waitFor(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private Process java(Path log, Class<?> main, String... options) throws IOException {
+        List<String> command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        command.addAll(List.of(options));
+        command.addAll(List.of("-Dspring.devtools.restart.enabled=false", "-cp", System.getProperty("java.class.path"),
+                main.getName(), dataDir.toString()));
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static int awaitReady(Process exporter, Path log) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(3);
+        while (System.nanoTime() < deadline) {
+            if (!exporter.isAlive()) {
+                fail("the exporter exited with " + exporter.exitValue() + "\n" + Files.readString(log));
+            }
+            for (String line : Files.readAllLines(log)) {
+                if (line.startsWith(READY)) {
+                    return Integer.parseInt(line.substring(READY.length()).trim());
+                }
+            }
+            Thread.sleep(200);
+        }
+        return fail("the exporter did not get ready\n" + Files.readString(log));
+    }
+
+    /**
+     * Creates the schema and inserts the persons straight into the tables, in a JVM of its own: the writes need
+     * H2's page cache and undo log, which is not what the export is measured on.
+     */
+    static class Seeder {
+        public static void main(String[] args) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.profiles.active=prod", "--DATA_DIR=" + args[0], "--person.changes.poll-interval-ms=3600000")) {
+                JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+                for (int from = 1; from <= ROWS; from += CHUNK) {
+                    int to = from + CHUNK - 1;
+                    jdbc.update("insert into pessoa (id, nome, data_aniversario, cpf) "
+                            + "select x, 'Person ' || x, dateadd(day, mod(x, 25000), date '1940-01-01'), lpad(x, 11, '0') "
+                            + "from system_range(?, ?)", from, to);
+                    jdbc.update("insert into endereco (id, rua, numero, bairro, cidade, estado, cep, person_id) "
+                            + "select x, 'Rua ' || x, '10', 'Centro', 'City ' || mod(x, 5000), 'RJ', lpad(mod(x, 100000), 8, '0'), x "
+                            + "from system_range(?, ?)", from, to);
+                }
+                // rewrites the file without the chunks the inserts left behind, which H2 would otherwise walk on open
+                jdbc.execute("shutdown compact");
+            }
+        }
+    }
+
+    /**
+     * Serves the seeded database on a random port, with an async request timeout far shorter than the export. The
+     * name, CPF and age indexes hold a slot per person by design, so their startup loaders are left out: the heap
+     * left is what the export itself needs.
+     */
+    static class Exporter {
+        private static final List<String> INDEX_LOADERS = List.of("personNameIndexLoader", "cpfIndexLoader", "personAgeStatsLoader");
+
+        public static void main(String[] args) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                    .initializers(ctx -> ctx.addBeanFactoryPostProcessor(beanFactory ->
+                            INDEX_LOADERS.forEach(((BeanDefinitionRegistry) beanFactory)::removeBeanDefinition)))
+                    .run("--spring.profiles.active=prod", "--DATA_DIR=" + args[0], "--person.changes.poll-interval-ms=3600000",
+                            "--server.port=0", "--spring.mvc.async.request-timeout=" + ASYNC_TIMEOUT_MS + "ms");
+            System.out.println(READY + context.getEnvironment().getProperty("local.server.port"));
+            System.out.flush();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.com.crud_pessoa.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.com.crud_pessoa.dto.AddressResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.service.PersonChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersonJsonMessageConverterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private PersonJsonMessageConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        converter = new PersonJsonMessageConverter(objectMapper, new SimpleMeterRegistry(), DataSize.ofMegabytes(1));
+    }
+
+    @Test
+    @DisplayName("Deve escrever o mesmo JSON que o conversor do Jackson, e apenas respostas de uma única pessoa")
+    void shouldWriteWhatJacksonWrites() throws IOException {
+        MockHttpOutputMessage expected = new MockHttpOutputMessage();
+        new MappingJackson2HttpMessageConverter(objectMapper).write(person("Josias Barreto", 3L), MediaType.APPLICATION_JSON, expected);
+
+        MockHttpOutputMessage first = write(person("Josias Barreto", 3L));
+        MockHttpOutputMessage second = write(person("Josias Barreto", 3L));
+
+        assertEquals(expected.getBodyAsString(), first.getBodyAsString());
+        assertEquals(expected.getBodyAsString(), second.getBodyAsString());
+        assertEquals(MediaType.APPLICATION_JSON, second.getHeaders().getContentType());
+        assertEquals(second.getBodyAsBytes().length, second.getHeaders().getContentLength());
+        assertTrue(converter.canWrite(PersonResponseDTO.class, MediaType.ALL));
+        assertFalse(converter.canWrite(PersonResponseDTO.class, MediaType.APPLICATION_XML));
+        assertFalse(converter.canWrite(List.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("Deve recusar a leitura de corpos de requisição com uma mensagem, em vez de um erro genérico")
+    void shouldRefuseToReadRequestBodies() {
+        MockHttpInputMessage input = new MockHttpInputMessage("{}".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(converter.canRead(PersonResponseDTO.class, MediaType.APPLICATION_JSON));
+        HttpMessageNotReadableException e = assertThrows(HttpMessageNotReadableException.class,
+                () -> converter.read(PersonResponseDTO.class, input));
+        assertNotNull(e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar os bytes só enquanto a versão for a mesma e descartá-los quando a pessoa mudar")
+    void shouldServeCachedBytesOnlyForTheSameVersion() throws IOException {
+        write(person("Josias Barreto", 3L));
+
+        // same id and version: the cached bytes are served, whatever this instance holds
+        assertTrue(write(person("Josias Moreira", 3L)).getBodyAsString().contains("Josias Barreto"));
+        assertTrue(write(person("Josias Moreira", 4L)).getBodyAsString().contains("Josias Moreira"));
+
+        converter.onPersonChanged(new PersonChangedEvent(1L, "Josias Moreira", "Josias Pereira", null, null));
+
+        assertTrue(write(person("Josias Pereira", 4L)).getBodyAsString().contains("Josias Pereira"));
+    }
+
+    private MockHttpOutputMessage write(PersonResponseDTO person) throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(person, MediaType.APPLICATION_JSON, message);
+        return message;
+    }
+
+    private static PersonResponseDTO person(String name, Long version) {
+        return new PersonResponseDTO(1L, name, LocalDate.of(1994, 9, 24), "128.363.000-19",
+                List.of(new AddressResponseDTO(1L, "Avenida José Carlos Pereira Pinto", "178-A", "Parque Guarus", "Campos dos Goytacazes", "RJ", "28143-000")),
+                version);
+    }
+}
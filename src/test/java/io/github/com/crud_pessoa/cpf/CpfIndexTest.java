@@ -0,0 +1,119 @@
+package io.github.com.crud_pessoa.cpf;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CpfIndexTest {
+
+    @Test
+    @DisplayName("Deve indexar apenas CPFs válidos nos dois formatos, tratando cada formato como um CPF distinto")
+    void shouldIndexOnlyValidCpfsInBothForms() {
+        CpfIndex index = new CpfIndex();
+        index.load(List.of("128.363.000-19"));
+
+        assertTrue(index.contains("128.363.000-19"));
+        assertFalse(index.contains("12836300019"));
+        assertTrue(index.reserve("12836300019"));
+        assertFalse(index.reserve("128.363.000-19"));
+        assertFalse(CpfIndex.isIndexable("128.363.000-18"));
+        assertFalse(CpfIndex.isIndexable("128363000-19"));
+        assertFalse(CpfIndex.isIndexable(null));
+    }
+
+    @Test
+    @DisplayName("Deve reservar cada CPF uma única vez mesmo com várias threads disputando os mesmos CPFs")
+    void shouldReserveEachCpfOnceUnderContention() throws Exception {
+        CpfIndex index = new CpfIndex();
+        index.load(List.of());
+        List<String> cpfs = IntStream.range(0, 20_000).mapToObj(CpfIndexTest::cpf).toList();
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> reserved = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                reserved.add(threads.submit(() -> {
+                    start.await();
+                    int count = 0;
+                    for (String cpf : cpfs) {
+                        if (index.reserve(cpf)) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> future : reserved) {
+                total += future.get();
+            }
+            assertEquals(cpfs.size(), total);
+            assertEquals(cpfs.size(), index.size());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve reaplicar as mudanças feitas durante a carga sobre os CPFs lidos do banco")
+    void shouldReplayChangesMadeWhileLoading() {
+        CpfIndex index = new CpfIndex();
+        index.add("926.591.480-74");
+        index.release("128.363.000-19");
+        assertFalse(index.isReady());
+
+        index.load(List.of("128.363.000-19", "428.209.060-01"));
+
+        assertTrue(index.isReady());
+        assertTrue(index.contains("926.591.480-74"));
+        assertFalse(index.contains("128.363.000-19"));
+        assertTrue(index.contains("428.209.060-01"));
+    }
+
+    @Test
+    @DisplayName("Deve liberar CPFs removidos e manter o consumo de memória em até 8 bytes por CPF")
+    void shouldReleaseAndStayCompact() {
+        CpfIndex index = new CpfIndex();
+        index.load(IntStream.range(0, 1_000_000).mapToObj(CpfIndexTest::cpf)::iterator);
+        assertTrue(index.memoryBytes() <= 8L * 1_000_000, "memory: " + index.memoryBytes());
+        for (int n = 0; n < 1_000_000; n += 2) {
+            index.release(cpf(n));
+        }
+
+        assertEquals(500_000, index.size());
+        assertFalse(index.contains(cpf(0)));
+        assertTrue(index.contains(cpf(1)));
+        assertTrue(index.reserve(cpf(0)));
+        assertTrue(index.memoryBytes() <= 8L * 500_000, "memory: " + index.memoryBytes());
+    }
+
+    // n as the nine base digits, followed by its two check digits
+    private static String cpf(int n) {
+        int[] digits = new int[11];
+        for (int i = 8; i >= 0; i--, n /= 10) {
+            digits[i] = n % 10;
+        }
+        for (int check = 9; check <= 10; check++) {
+            int sum = 0;
+            for (int i = 0; i < check; i++) {
+                sum += digits[i] * (check + 1 - i);
+            }
+            digits[check] = sum % 11 < 2 ? 0 : 11 - sum % 11;
+        }
+        StringBuilder cpf = new StringBuilder(11);
+        for (int digit : digits) {
+            cpf.append(digit);
+        }
+        return cpf.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.com.crud_pessoa.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlStatementCountFilterTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SqlStatementCountFilter filter = new SqlStatementCountFilter(registry);
+    private final SqlStatementCounter inspector = new SqlStatementCounter();
+    private final EntityLoadCounter interceptor = new EntityLoadCounter();
+
+    @Test
+    @DisplayName("Deve informar no cabeçalho as consultas SQL executadas antes do corpo da resposta")
+    void shouldReportStatementsIssuedBeforeTheBodyInHeader() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/person/1"), response, (req, res) -> {
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+            res.getWriter().write("{}");
+            inspector.inspect("select 3");
+        });
+
+        assertEquals("2", response.getHeader(SqlStatementCountFilter.HEADER));
+        assertEquals(3.0, registry.get("person.request.sql.statements").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Deve informar o cabeçalho em respostas sem corpo e zerar a contagem entre requisições")
+    void shouldReportHeaderOnResponsesWithoutBodyAndResetBetweenRequests() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/person/1"), first, (req, res) -> inspector.inspect("delete"));
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/person/2"), second, (req, res) -> {});
+
+        assertEquals("1", first.getHeader(SqlStatementCountFilter.HEADER));
+        assertEquals("0", second.getHeader(SqlStatementCountFilter.HEADER));
+        assertEquals(2, registry.get("person.request.sql.statements").summary().count());
+    }
+
+    @Test
+    @DisplayName("Deve registrar as entidades carregadas por requisição e zerar a contagem entre requisições")
+    void shouldRecordEntitiesLoadedPerRequest() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/person/1"), new MockHttpServletResponse(), (req, res) -> {
+            inspector.inspect("select p");
+            interceptor.onLoad(new Object(), (Object) 1L, new Object[0], new String[0], new Type[0]);
+            interceptor.onLoad(new Object(), (Object) 2L, new Object[0], new String[0], new Type[0]);
+        });
+        filter.doFilter(new MockHttpServletRequest("GET", "/person/2"), new MockHttpServletResponse(), (req, res) -> {});
+
+        DistributionSummary entities = registry.get("person.request.entities.loaded").summary();
+        assertEquals(2, entities.count());
+        assertEquals(2.0, entities.totalAmount());
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.com.crud_pessoa.repository;
+
+import io.github.com.crud_pessoa.dto.AddressResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.mapper.AddressMapper;
+import io.github.com.crud_pessoa.mapper.AddressMapperImpl;
+import io.github.com.crud_pessoa.mapper.PersonMapper;
+import io.github.com.crud_pessoa.mapper.PersonMapperImpl;
+import io.github.com.crud_pessoa.model.Address;
+import io.github.com.crud_pessoa.model.Person;
+import io.github.com.crud_pessoa.repository.projection.AddressRow;
+import io.github.com.crud_pessoa.repository.projection.PersonRow;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({PersonMapperImpl.class, AddressMapperImpl.class})
+class PersonRepositoryTest {
+    private static final int PERSONS = 600;
+
+    @Autowired
+    private PersonRepository repository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private PersonMapper mapper;
+
+    @Autowired
+    private AddressMapper addressMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < PERSONS; i++) {
+            Person person = new Person(null, "Person " + i, LocalDate.of(1990, 1, 1), String.format("%011d", i), new ArrayList<>());
+            for (int j = 0; j < 2; j++) {
+                Address address = new Address(null, "Rua " + j, "10" + j, "Centro", "Campos dos Goytacazes", "RJ", "28015-000");
+                address.setPerson(person);
+                person.getAddresses().add(address);
+            }
+            entityManager.persist(person);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 500})
+    @DisplayName("Deve carregar uma página com endereços em um número fixo de consultas, sem instanciar entidades")
+    void shouldLoadPageWithAddressesInBoundedStatements(int size) {
+        List<PersonResponseDTO> persons = withAddresses(repository.findRows(PageRequest.of(0, size)).getContent());
+
+        assertEquals(size, persons.size());
+        assertTrue(persons.stream().allMatch(p -> p.addresses().size() == 2));
+        // persons page + count + one address load
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 500})
+    @DisplayName("Deve carregar uma página por cursor com endereços em duas consultas")
+    void shouldLoadCursorPageWithAddressesInTwoStatements(int size) {
+        var slice = repository.findRowsByIdGreaterThan(0L, PageRequest.of(0, size, Sort.by("id")));
+        List<PersonResponseDTO> persons = withAddresses(slice.getContent());
+
+        assertEquals(size, persons.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Deve buscar uma pessoa pelo ID com os endereços em uma única consulta")
+    void shouldFindByIdWithAddressesInSingleStatement() {
+        Long id = repository.findRowsByIdGreaterThan(0L, PageRequest.of(0, 1, Sort.by("id"))).getContent().get(0).id();
+        entityManager.clear();
+        statistics.clear();
+
+        PersonResponseDTO person = repository.findById(id).map(mapper::toDTO).orElseThrow();
+
+        assertEquals(2, person.addresses().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private List<PersonResponseDTO> withAddresses(List<PersonRow> rows) {
+        Map<Long, List<AddressResponseDTO>> addresses = addressRepository.findRowsByPersonIdIn(rows.stream().map(PersonRow::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(AddressRow::personId, Collectors.mapping(addressMapper::toDTO, Collectors.toList())));
+        return rows.stream().map(row -> mapper.toDTO(row, addresses.get(row.id()))).toList();
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.com.crud_pessoa.repository;
+
+import io.github.com.crud_pessoa.dto.PersonSearchFilterDTO;
+import io.github.com.crud_pessoa.model.Person;
+import io.github.com.crud_pessoa.repository.projection.PersonRow;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs each search filter against a million persons and checks H2's plan for the SQL Hibernate actually generated.
+ * The context is discarded afterwards, which drops the seeded in-memory database with it.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "io.github.com.crud_pessoa.repository.PersonSearchIndexTest$LastStatement")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PersonSearchIndexTest {
+    private static final int ROWS = 1_000_000;
+    private static final int CHUNK = 50_000;
+
+    @Autowired
+    private PersonRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    // Inserted in chunks: one huge INSERT ... SELECT keeps its whole undo log in memory until commit.
+    @BeforeAll
+    void seed() {
+        for (int from = 1; from <= ROWS; from += CHUNK) {
+            int to = from + CHUNK - 1;
+            jdbc.update("insert into pessoa (id, nome, data_aniversario, cpf) "
+                    + "select x, 'Person ' || x, dateadd(day, mod(x, 25000), date '1940-01-01'), lpad(x, 11, '0') "
+                    + "from system_range(?, ?)", from, to);
+            jdbc.update("insert into endereco (id, rua, numero, bairro, cidade, estado, cep, person_id) "
+                    + "select x, 'Rua ' || x, '10', 'Centro', 'City ' || mod(x, 5000), "
+                    + "char(65 + mod(x, 26)) || char(65 + mod(x / 26, 26)), lpad(mod(x, 100000), 8, '0'), x "
+                    + "from system_range(?, ?)", from, to);
+        }
+        jdbc.execute("analyze");
+    }
+
+    static Stream<Arguments> searches() {
+        return Stream.of(
+                Arguments.of(filter("Person 7", null, null, null, null, null, null), null, 0L, "IDX_PESSOA_NOME"),
+                Arguments.of(filter("Person 7", null, null, null, null, null, null), "Person 75", 75L, "IDX_PESSOA_NOME"),
+                Arguments.of(filter(null, "00000424242", null, null, null, null, null), null, 0L, "UK_PESSOA_CPF"),
+                Arguments.of(filter(null, null, null, null, null, LocalDate.of(1970, 1, 1), LocalDate.of(1999, 12, 31)), null, 0L, "IDX_PESSOA_DATA_ANIVERSARIO"),
+                Arguments.of(filter(null, null, null, null, null, LocalDate.of(1970, 1, 1), null), "1975-06-01", 1000L, "IDX_PESSOA_DATA_ANIVERSARIO"),
+                Arguments.of(filter(null, null, "City 42", null, null, null, null), null, 0L, "IDX_ENDERECO_CIDADE"),
+                Arguments.of(filter(null, null, "City 42", null, null, null, null), null, 500_000L, "IDX_ENDERECO_CIDADE"),
+                Arguments.of(filter(null, null, null, "RJ", null, null, null), null, 0L, "IDX_ENDERECO_ESTADO"),
+                Arguments.of(filter(null, null, null, null, "00042424", null, null), null, 0L, "IDX_ENDERECO_CEP"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("searches")
+    @DisplayName("Deve usar um índice para cada filtro de busca com 1M de pessoas, também nas páginas seguintes")
+    void shouldUseAnIndexForEachSearchFilter(PersonSearchFilterDTO filter, String lastKey, long lastId, String expectedIndex) {
+        PersonSearchOrder order = PersonSearchOrder.of(filter);
+        Specification<Person> spec = PersonSpecifications.search(filter, order, lastKey, lastId);
+        List<PersonRow> rows = repository.findRows(spec, order.sort(), 11);
+        assertFalse(rows.isEmpty(), "The seeded data should match " + filter);
+
+        String plan = explain(LastStatement.sql);
+
+        assertTrue(plan.contains("/* PUBLIC." + expectedIndex), "Expected " + expectedIndex + " in plan:\n" + plan);
+        assertFalse(plan.contains("tableScan"), "Unexpected table scan in plan:\n" + plan);
+        if (order != PersonSearchOrder.ID) {
+            // the page is read in index order, so the LIMIT stops the scan instead of sorting every match
+            assertTrue(plan.contains("/* index sorted */"), "Expected an index-ordered read in plan:\n" + plan);
+        }
+    }
+
+    // The plan does not depend on the bound values, so EXPLAIN runs with every parameter set to NULL.
+    private String explain(String sql) {
+        return jdbc.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet result = statement.executeQuery()) {
+                    result.next();
+                    return result.getString(1);
+                }
+            }
+        });
+    }
+
+    private static PersonSearchFilterDTO filter(String name, String cpf, String city, String state, String zipCode,
+                                                LocalDate bornFrom, LocalDate bornTo) {
+        return new PersonSearchFilterDTO(name, cpf, city, state, zipCode, bornFrom, bornTo);
+    }
+
+    public static class LastStatement implements StatementInspector {
+        static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            LastStatement.sql = sql;
+            return sql;
+        }
+    }
+}
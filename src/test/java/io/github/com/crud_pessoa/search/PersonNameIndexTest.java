@@ -0,0 +1,82 @@
+package io.github.com.crud_pessoa.search;
+
+import io.github.com.crud_pessoa.dto.PersonNameMatchDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersonNameIndexTest {
+    private PersonNameIndex index;
+
+    @BeforeEach
+    void setup() {
+        PersonNameIndex.Postings first = new PersonNameIndex.Postings();
+        first.add(1, "João da Silva");
+        first.add(2, "Maria José Souza");
+        PersonNameIndex.Postings second = new PersonNameIndex.Postings();
+        second.add(3, "Joana Silveira");
+        second.add(4, "Josias Barreto");
+        index = new PersonNameIndex();
+        index.load(PersonNameIndex.Postings.merge(List.of(first, second)));
+    }
+
+    @Test
+    @DisplayName("Deve encontrar nomes ignorando acentos e maiúsculas")
+    void shouldMatchIgnoringAccentsAndCase() {
+        List<PersonNameMatchDTO> matches = index.search("JOAO SILVA", 0.5, 10);
+
+        assertEquals(1L, matches.get(0).id());
+        assertEquals(1.0, matches.get(0).score());
+    }
+
+    @Test
+    @DisplayName("Deve dimensionar o ranking pelos candidatos, não pelo limit pedido")
+    void shouldSizeTheRankingByCandidatesNotByLimit() {
+        assertEquals(1L, index.search("JOAO SILVA", 0.5, Integer.MAX_VALUE).get(0).id());
+    }
+
+    @Test
+    @DisplayName("Deve tolerar erros de digitação e ordenar pela pontuação")
+    void shouldTolerateTyposAndRankByScore() {
+        List<PersonNameMatchDTO> matches = index.search("Josias Barretto", 0.5, 10);
+
+        assertEquals(4L, matches.get(0).id());
+        assertTrue(matches.get(0).score() < 1.0);
+        assertTrue(matches.stream().noneMatch(m -> m.id() == 2L));
+    }
+
+    @Test
+    @DisplayName("Deve refletir renomeações e remoções")
+    void shouldReflectRenamesAndRemovals() {
+        index.replace(4, "Josias Barreto", "Josias Barreto Filho");
+        index.remove(1, "João da Silva");
+
+        assertEquals(List.of(4L), index.search("filho", 0.5, 10).stream().map(PersonNameMatchDTO::id).toList());
+        assertTrue(index.search("joao silva", 0.8, 10).isEmpty());
+        // removing a name again is a no-op
+        index.remove(1, "João da Silva");
+        assertEquals(3L, index.search("joana", 0.5, 10).get(0).id());
+    }
+
+    @Test
+    @DisplayName("Deve reaplicar as escritas recebidas antes da carga inicial")
+    void shouldReplayWritesReceivedBeforeTheInitialLoad() {
+        PersonNameIndex loading = new PersonNameIndex();
+        loading.add(5, "Ana Paula");
+        loading.remove(6, "Pedro Alves");
+        assertFalse(loading.isReady());
+
+        PersonNameIndex.Postings scanned = new PersonNameIndex.Postings();
+        scanned.add(5, "Ana Paula");
+        scanned.add(6, "Pedro Alves");
+        loading.load(scanned);
+
+        assertTrue(loading.isReady());
+        assertEquals(List.of(5L), loading.search("ana paula", 0.5, 10).stream().map(PersonNameMatchDTO::id).toList());
+        assertTrue(loading.search("pedro alves", 0.5, 10).isEmpty());
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.com.crud_pessoa.service;
+
+import io.github.com.crud_pessoa.dto.AddressRequestDTO;
+import io.github.com.crud_pessoa.dto.AddressResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.exception.CpfAlreadyExistsException;
+import io.github.com.crud_pessoa.exception.IdempotencyKeyReuseException;
+import io.github.com.crud_pessoa.exception.InvalidIdempotencyKeyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+    private static final int CLIENTS = 32;
+
+    private final PersonRequestDTO request = new PersonRequestDTO("Josias Barreto", LocalDate.of(1994, 9, 24), "128.363.000-19",
+            List.of(new AddressRequestDTO(null, "Avenida José Carlos Pereira Pinto", "178-A", "Parque Guarus", "Campos dos Goytacazes", "RJ", "28143-000")));
+    private final PersonResponseDTO created = new PersonResponseDTO(1L, "Josias Barreto", LocalDate.of(1994, 9, 24), "128.363.000-19",
+            List.of(new AddressResponseDTO(1L, "Avenida José Carlos Pereira Pinto", "178-A", "Parque Guarus", "Campos dos Goytacazes", "RJ", "28143-000")), 0L);
+
+    private SimpleMeterRegistry registry;
+    private IdempotencyStore store;
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        store = new IdempotencyStore(registry, 100, Duration.ofMinutes(1));
+        clients = Executors.newFixedThreadPool(CLIENTS);
+    }
+
+    @AfterEach
+    void cleanup() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Deve criar uma única vez quando a mesma chave chega em paralelo e repetir a resposta para os demais")
+    void shouldCreateOnceForParallelRequestsWithSameKey() throws Exception {
+        AtomicInteger creates = new AtomicInteger();
+        List<IdempotencyStore.Outcome> outcomes = inParallel(() -> store.create("key-1", request, () -> {
+            creates.incrementAndGet();
+            sleep();
+            return created;
+        }));
+
+        assertEquals(1, creates.get());
+        assertTrue(outcomes.stream().allMatch(outcome -> outcome.response().equals(created)));
+        assertEquals(1, outcomes.stream().filter(outcome -> !outcome.replayed()).count());
+        assertEquals(1, count("executed"));
+        assertEquals(CLIENTS - 1, count("replayed"));
+    }
+
+    @Test
+    @DisplayName("Deve repassar a falha a quem esperava e liberar a chave para uma nova tentativa")
+    void shouldShareFailureAndReleaseKey() throws Exception {
+        AtomicInteger creates = new AtomicInteger();
+        List<Future<IdempotencyStore.Outcome>> futures = submitAll(() -> store.create("key-2", request, () -> {
+            creates.incrementAndGet();
+            sleep();
+            throw new CpfAlreadyExistsException("There is already a registered user with the CPF provided: " + request.cpf());
+        }));
+        for (Future<IdempotencyStore.Outcome> future : futures) {
+            ExecutionException failure = assertThrows(ExecutionException.class, future::get);
+            assertInstanceOf(CpfAlreadyExistsException.class, failure.getCause());
+        }
+        assertEquals(1, creates.get());
+
+        IdempotencyStore.Outcome retry = store.create("key-2", request, () -> created);
+        assertFalse(retry.replayed());
+        assertEquals(created, retry.response());
+    }
+
+    @Test
+    @DisplayName("Deve recusar uma chave reutilizada com outro corpo ou com tamanho inválido")
+    void shouldRejectKeyReusedWithAnotherBody() {
+        store.create("key-3", request, () -> created);
+        PersonRequestDTO other = new PersonRequestDTO("Outra Pessoa", request.dateOfBirth(), request.cpf(), request.addresses());
+
+        assertThrows(IdempotencyKeyReuseException.class, () -> store.create("key-3", other, () -> created));
+        assertThrows(InvalidIdempotencyKeyException.class, () -> store.create("x".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1), request, () -> created));
+        assertEquals(1, count("rejected"));
+    }
+
+    private List<IdempotencyStore.Outcome> inParallel(Supplier<IdempotencyStore.Outcome> call) throws Exception {
+        List<IdempotencyStore.Outcome> outcomes = new ArrayList<>();
+        for (Future<IdempotencyStore.Outcome> future : submitAll(call)) {
+            outcomes.add(future.get());
+        }
+        return outcomes;
+    }
+
+    private List<Future<IdempotencyStore.Outcome>> submitAll(Supplier<IdempotencyStore.Outcome> call) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<IdempotencyStore.Outcome>> futures = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            futures.add(clients.submit(() -> {
+                start.await();
+                return call.get();
+            }));
+        }
+        start.countDown();
+        return futures;
+    }
+
+    // keeps the first create running while the other clients arrive with the same key
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double count(String outcome) {
+        return registry.get("person.idempotency.requests").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.com.crud_pessoa.service;
+
+import io.github.com.crud_pessoa.config.CacheConfig;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersonCacheTest {
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.PERSONS);
+    private final PersonCache cache = new PersonCache(cacheManager);
+
+    @Test
+    @DisplayName("Deve carregar a pessoa uma vez e servir as leituras seguintes do cache até uma mudança")
+    void shouldLoadOnceAndServeFromCacheUntilAChange() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> person(id, "Josias Barreto", loads));
+        cache.get(1L, id -> person(id, "Josias Barreto", loads));
+        cache.onPersonChanged(new PersonChangedEvent(1L, "Josias Barreto", "Josias B. Barreto", null, null));
+
+        assertEquals("Josias B. Barreto", cache.get(1L, id -> person(id, "Josias B. Barreto", loads)).name());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar a leitura de uma linha alterada por uma escrita confirmada durante a leitura")
+    void shouldNotCacheAReadThatRacedACommittedChange() {
+        // the row is read, then the write commits and evicts, then the read would put the old row back
+        PersonResponseDTO read = cache.get(1L, id -> {
+            PersonResponseDTO old = person(id, "Josias Barreto", new AtomicInteger());
+            cache.onPersonChanged(new PersonChangedEvent(1L, "Josias Barreto", "Josias B. Barreto", null, null));
+            return old;
+        });
+
+        assertEquals("Josias Barreto", read.name());
+        assertNull(cacheManager.getCache(CacheConfig.PERSONS).get(1L));
+    }
+
+    private static PersonResponseDTO person(Long id, String name, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new PersonResponseDTO(id, name, LocalDate.of(1994, 9, 24), "128.363.000-19", List.of(), 0L);
+    }
+}
@@ -0,0 +1,183 @@
+package io.github.com.crud_pessoa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.com.crud_pessoa.cpf.CpfReservations;
+import io.github.com.crud_pessoa.dto.ImportRejectionDTO;
+import io.github.com.crud_pessoa.dto.ImportSummaryDTO;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import io.github.com.crud_pessoa.mapper.PersonMapper;
+import io.github.com.crud_pessoa.model.Person;
+import io.github.com.crud_pessoa.repository.PersonRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+// Mockito creates its mocks at runtime, which a native image cannot do
+@DisabledInAotMode
+@ExtendWith(MockitoExtension.class)
+class PersonImportServiceTest {
+    @Mock
+    private PersonRepository personRepository;
+
+    @Mock
+    private PersonMapper mapper;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private CpfReservations cpfReservations;
+
+    private PersonImportService importService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        var validator = Validation.buildDefaultValidatorFactory().getValidator();
+        importService = new PersonImportService(personRepository, mapper, validator, new ObjectMapper().findAndRegisterModules(),
+                transactionTemplate, events, cpfReservations, 2, 2, 2);
+
+        lenient().when(transactionTemplate.execute(any(TransactionCallback.class))).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+        lenient().when(mapper.toEntity(any(PersonRequestDTO.class))).thenAnswer(invocation -> {
+            PersonRequestDTO dto = invocation.getArgument(0);
+            return new Person(null, dto.name(), dto.dateOfBirth(), dto.cpf(), new ArrayList<>());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve importar NDJSON em blocos e reportar as linhas rejeitadas")
+    @SuppressWarnings("unchecked")
+    void shouldImportNdjsonInChunksAndReportRejectedLines() throws Exception {
+        String body = String.join("\n",
+                person("Alice Souza", "128.363.000-19"),
+                person("Bob Lima", "926.591.480-74"),
+                "{not json",
+                person("carol", "428.209.060-01"),
+                person("Carol Dias", "128.363.000-19"),
+                "",
+                person("Dave Reis", "111.444.777-35"));
+        reservations("111.444.777-35");
+
+        ImportSummaryDTO summary = importService.importPersons(new StringReader(body), PersonImportService.Format.NDJSON);
+
+        assertEquals(2, summary.accepted());
+        assertEquals(4, summary.rejected());
+        assertEquals(List.of(3L, 4L, 5L, 7L), summary.rejections().stream().map(ImportRejectionDTO::line).toList());
+        // Alice's chunk was written first, so her CPF is already registered when Carol's chunk reserves it
+        assertEquals("There is already a registered user with the CPF provided: 128.363.000-19", summary.rejections().get(2).message());
+        assertEquals("There is already a registered user with the CPF provided: 111.444.777-35", summary.rejections().get(3).message());
+        verify(cpfReservations, times(2)).reserve(any());
+        verify(personRepository, times(2)).saveAll(any(List.class));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar o CPF repetido no mesmo bloco sem enviá-lo às reservas")
+    @SuppressWarnings("unchecked")
+    void shouldRejectACpfRepeatedWithinTheChunk() throws Exception {
+        String body = String.join("\n",
+                person("Alice Souza", "128.363.000-19"),
+                person("Alice Souza", "128.363.000-19"),
+                person("Bob Lima", "926.591.480-74"));
+        reservations();
+
+        ImportSummaryDTO summary = importService.importPersons(new StringReader(body), PersonImportService.Format.NDJSON);
+
+        assertEquals(2, summary.accepted());
+        assertEquals(List.of(new ImportRejectionDTO(2, "Duplicated CPF in the import: 128.363.000-19")), summary.rejections());
+        verify(cpfReservations).reserve(List.of("128.363.000-19", "926.591.480-74"));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar as linhas de um bloco que falhou e seguir com os demais, sem contar o que foi desfeito")
+    @SuppressWarnings("unchecked")
+    void shouldRejectTheLinesOfAFailedChunkAndKeepImporting() throws Exception {
+        String body = String.join("\n",
+                person("Alice Souza", "128.363.000-19"),
+                person("Bob Lima", "926.591.480-74"),
+                person("Carol Dias", "428.209.060-01"),
+                person("Dave Reis", "111.444.777-35"));
+        // the first chunk reports Bob's CPF as taken, then fails to insert: nothing of it may reach the summary
+        when(cpfReservations.reserve(any())).thenAnswer(invocation -> {
+            Collection<String> cpfs = invocation.getArgument(0);
+            return cpfs.contains("926.591.480-74") ? Set.of("926.591.480-74") : Set.of();
+        });
+        when(personRepository.saveAll(any(List.class)))
+                .thenThrow(new DataIntegrityViolationException("insert failed", new SQLException("Unique index violation on PESSOA(CPF)")))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ImportSummaryDTO summary = importService.importPersons(new StringReader(body), PersonImportService.Format.NDJSON);
+
+        assertEquals(2, summary.accepted());
+        assertEquals(2, summary.rejected());
+        assertEquals(List.of(1L, 2L), summary.rejections().stream().map(ImportRejectionDTO::line).toList());
+        assertEquals("The chunk containing this line could not be written: Unique index violation on PESSOA(CPF)",
+                summary.rejections().get(1).message());
+        verify(events, times(2)).publishEvent(any(PersonChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Deve importar CSV ignorando o cabeçalho")
+    void shouldImportCsvSkippingHeader() throws Exception {
+        String body = String.join("\n",
+                PersonImportService.CSV_HEADER,
+                "Alice Souza,1990-01-01,128.363.000-19,\"Rua das Flores, 10\",10,Centro,Campos dos Goytacazes,RJ,28015-000",
+                "Bob Lima,1990-01-01,926.591.480-74,Rua A,1,Centro,Campos dos Goytacazes,RJ");
+        when(cpfReservations.reserve(any())).thenReturn(Set.of());
+
+        ImportSummaryDTO summary = importService.importPersons(new StringReader(body), PersonImportService.Format.CSV);
+
+        assertEquals(1, summary.accepted());
+        assertEquals(1, summary.rejected());
+        assertEquals(3L, summary.rejections().get(0).line());
+        verify(mapper).toEntity(argThat((PersonRequestDTO dto) -> dto.addresses().get(0).street().equals("Rua das Flores, 10")));
+    }
+
+    // CPF reservations that hold every CPF they hand out, as the CPF index does once a chunk commits
+    private void reservations(String... registered) {
+        Set<String> taken = new HashSet<>(List.of(registered));
+        when(cpfReservations.reserve(any())).thenAnswer(invocation -> {
+            Collection<String> cpfs = invocation.getArgument(0);
+            Set<String> existing = cpfs.stream().filter(taken::contains).collect(Collectors.toSet());
+            taken.addAll(cpfs);
+            return existing;
+        });
+    }
+
+    private static String person(String name, String cpf) {
+        return """
+                {"name":"%s","dateOfBirth":"1990-01-01","cpf":"%s","addresses":[{"street":"Rua A","number":"1","neighborhood":"Centro","city":"Campos dos Goytacazes","state":"RJ","zipCode":"28015-000"}]}"""
+                .formatted(name, cpf);
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.com.crud_pessoa.service;
+
+import io.github.com.crud_pessoa.config.CacheConfig;
+import io.github.com.crud_pessoa.dto.AddressRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.repository.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PersonServiceCacheTest {
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final PersonRequestDTO personRequestDTO = new PersonRequestDTO("Josias Barreto", LocalDate.of(1994, 9, 24), "128.363.000-19",
+            List.of(new AddressRequestDTO(null, "Avenida José Carlos Pereira Pinto", "178-A", "Parque Guarus", "Campos dos Goytacazes", "RJ", "28143-000")));
+
+    @AfterEach
+    void cleanup() {
+        personRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    @DisplayName("Deve preencher o cache de pessoas nas leituras e esvaziá-lo quando uma escrita for confirmada")
+    void shouldKeepPersonCacheInSyncWithWrites() {
+        Cache persons = cacheManager.getCache(CacheConfig.PERSONS);
+
+        // writes never put: only reads fill the cache, and committed writes evict
+        PersonResponseDTO saved = personService.savePerson(personRequestDTO);
+        assertNull(persons.get(saved.id()));
+        assertSame(personService.getPersonById(saved.id()), personService.getPersonById(saved.id()));
+        assertEquals(saved, persons.get(saved.id(), PersonResponseDTO.class));
+
+        var renamed = new PersonRequestDTO("Josias B. Barreto", personRequestDTO.dateOfBirth(), personRequestDTO.cpf(), personRequestDTO.addresses());
+        personService.updatePerson(renamed, saved.id(), saved.version());
+        assertNull(persons.get(saved.id()));
+        assertEquals("Josias B. Barreto", personService.getPersonById(saved.id()).name());
+
+        personService.deletePerson(saved.id());
+        assertNull(persons.get(saved.id()));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar o mesmo CPF de novo depois que a pessoa for deletada")
+    void shouldAcceptTheCpfAgainOnceItsPersonIsDeleted() {
+        PersonResponseDTO saved = personService.savePerson(personRequestDTO);
+        assertTrue(personRepository.existsByCpf(personRequestDTO.cpf()));
+
+        personService.deletePerson(saved.id());
+
+        assertFalse(personRepository.existsByCpf(personRequestDTO.cpf()));
+        assertEquals(personRequestDTO.cpf(), personService.savePerson(personRequestDTO).cpf());
+    }
+}
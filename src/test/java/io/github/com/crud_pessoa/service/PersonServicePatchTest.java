@@ -0,0 +1,146 @@
+package io.github.com.crud_pessoa.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.com.crud_pessoa.dto.AddressRequestDTO;
+import io.github.com.crud_pessoa.dto.AddressResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.exception.PreconditionFailedException;
+import io.github.com.crud_pessoa.metrics.SqlStatementCounter;
+import io.github.com.crud_pessoa.model.Address;
+import io.github.com.crud_pessoa.model.Person;
+import io.github.com.crud_pessoa.model.PersonChange;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PersonServicePatchTest {
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private PersonResponseDTO saved;
+
+    @BeforeEach
+    void setup() {
+        saved = personService.savePerson(new PersonRequestDTO("Josias Barreto", LocalDate.of(1994, 9, 24), "128.363.000-19", List.of(
+                new AddressRequestDTO(null, "Avenida José Carlos Pereira Pinto", "178-A", "Parque Guarus", "Campos dos Goytacazes", "RJ", "28143-000"),
+                new AddressRequestDTO(null, "Rua Barão de Miracema", "10", "Centro", "Campos dos Goytacazes", "RJ", "28035-000"))));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        SqlStatementCounter.reset();
+    }
+
+    @AfterEach
+    void cleanup() {
+        // through the service, so the CPF is released from the CPF index as well
+        personService.deletePerson(saved.id());
+    }
+
+    @Test
+    @DisplayName("Deve atualizar apenas o nome sem tocar nos endereços")
+    void shouldPatchOnlyTheName() throws Exception {
+        PersonResponseDTO patched = personService.patchPerson(json("{\"name\":\"Josias B. Barreto\"}"), saved.id(), saved.version());
+
+        assertEquals("Josias B. Barreto", patched.name());
+        assertEquals(saved.addresses(), patched.addresses());
+        assertEquals(saved.version() + 1, patched.version());
+        assertEquals(1, entity(Person.class).getUpdateCount());
+        assertEquals(0, entity(Address.class).getUpdateCount() + entity(Address.class).getInsertCount() + entity(Address.class).getDeleteCount());
+        assertEquals(1, entity(PersonChange.class).getInsertCount());
+        // findById with the address graph + one UPDATE of the name column + the outbox INSERT, and the outbox
+        // sequence call whenever its pool of 50 IDs runs out
+        int statements = SqlStatementCounter.current();
+        assertTrue(statements == 3 || statements == 4, "statements: " + statements);
+        // the person and its two addresses
+        assertEquals(3, SqlStatementCounter.entitiesLoaded());
+        assertEquals(entity(Person.class).getLoadCount() + entity(Address.class).getLoadCount(), SqlStatementCounter.entitiesLoaded());
+    }
+
+    @Test
+    @DisplayName("Deve comparar os endereços por ID: manter, alterar, incluir e remover")
+    void shouldDiffAddressesById() throws Exception {
+        AddressResponseDTO kept = saved.addresses().get(0);
+        String patch = """
+                {"addresses":[
+                  {"id":%d,"street":"%s","number":"%s","neighborhood":"%s","city":"Niterói","state":"RJ","zipCode":"%s"},
+                  {"street":"Rua Nova","number":"1","neighborhood":"Icaraí","city":"Niterói","state":"RJ","zipCode":"24220-000"}
+                ]}""".formatted(kept.id(), kept.street(), kept.number(), kept.neighborhood(), kept.zipCode());
+
+        PersonResponseDTO patched = personService.patchPerson(json(patch), saved.id(), saved.version());
+
+        assertEquals(2, patched.addresses().size());
+        assertEquals(kept.id(), patched.addresses().get(0).id());
+        assertEquals("Niterói", patched.addresses().get(0).city());
+        assertNotEquals(saved.addresses().get(1).id(), patched.addresses().get(1).id());
+        assertEquals(1, entity(Address.class).getUpdateCount());
+        assertEquals(1, entity(Address.class).getInsertCount());
+        assertEquals(1, entity(Address.class).getDeleteCount());
+    }
+
+    @Test
+    @DisplayName("Deve incrementar a versão quando apenas um endereço muda")
+    void shouldBumpVersionWhenOnlyAnAddressChanges() throws Exception {
+        AddressResponseDTO first = saved.addresses().get(0);
+        AddressResponseDTO second = saved.addresses().get(1);
+        String patch = """
+                {"addresses":[
+                  {"id":%d,"street":"%s","number":"200","neighborhood":"%s","city":"%s","state":"RJ","zipCode":"%s"},
+                  {"id":%d,"street":"%s","number":"%s","neighborhood":"%s","city":"%s","state":"RJ","zipCode":"%s"}
+                ]}""".formatted(first.id(), first.street(), first.neighborhood(), first.city(), first.zipCode(),
+                second.id(), second.street(), second.number(), second.neighborhood(), second.city(), second.zipCode());
+
+        PersonResponseDTO patched = personService.patchPerson(json(patch), saved.id(), saved.version());
+
+        assertEquals("200", patched.addresses().get(0).number());
+        assertEquals(saved.version() + 1, patched.version());
+        assertEquals(patched.version(), personService.getPersonVersion(saved.id()));
+    }
+
+    @Test
+    @DisplayName("Deve recusar um patch feito sobre uma versão antiga")
+    void shouldRejectPatchOnStaleVersion() throws Exception {
+        personService.patchPerson(json("{\"name\":\"Josias B. Barreto\"}"), saved.id(), saved.version());
+
+        assertThrows(PreconditionFailedException.class,
+                () -> personService.patchPerson(json("{\"name\":\"Outro Nome\"}"), saved.id(), saved.version()));
+        assertEquals("Josias B. Barreto", personService.getPersonById(saved.id()).name());
+    }
+
+    @Test
+    @DisplayName("Deve validar o documento resultante do patch")
+    void shouldValidatePatchedDocument() throws Exception {
+        assertThrows(ConstraintViolationException.class, () -> personService.patchPerson(json("{\"addresses\":[]}"), saved.id(), saved.version()));
+        assertEquals(saved.addresses(), personService.getPersonById(saved.id()).addresses());
+    }
+
+    // per entity: the change publisher updates outbox rows in the background, which the global counts would include
+    private EntityStatistics entity(Class<?> type) {
+        return statistics.getEntityStatistics(type.getName());
+    }
+
+    private JsonNode json(String body) throws Exception {
+        return objectMapper.readTree(body);
+    }
+}
@@ -1,43 +1,106 @@
 package io.github.com.crud_pessoa.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.com.crud_pessoa.cpf.CpfReservations;
 import io.github.com.crud_pessoa.dto.AddressRequestDTO;
 import io.github.com.crud_pessoa.dto.AddressResponseDTO;
+import io.github.com.crud_pessoa.dto.CursorPageResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonBatchItemResultDTO;
 import io.github.com.crud_pessoa.dto.PersonRequestDTO;
 import io.github.com.crud_pessoa.dto.PersonResponseDTO;
+import io.github.com.crud_pessoa.dto.PersonSearchFilterDTO;
 import io.github.com.crud_pessoa.exception.CpfAlreadyExistsException;
 import io.github.com.crud_pessoa.exception.CpfMismatchException;
+import io.github.com.crud_pessoa.exception.InvalidCursorException;
+import io.github.com.crud_pessoa.exception.InvalidPatchException;
+import io.github.com.crud_pessoa.exception.InvalidSearchParameterException;
+import io.github.com.crud_pessoa.exception.PreconditionFailedException;
 import io.github.com.crud_pessoa.exception.ResourceNotFoundException;
+import io.github.com.crud_pessoa.exception.SearchIndexUnavailableException;
+import io.github.com.crud_pessoa.mapper.AddressMapper;
 import io.github.com.crud_pessoa.mapper.PersonMapper;
 import io.github.com.crud_pessoa.model.Address;
 import io.github.com.crud_pessoa.model.Person;
+import io.github.com.crud_pessoa.repository.AddressRepository;
 import io.github.com.crud_pessoa.repository.PersonRepository;
+import io.github.com.crud_pessoa.repository.projection.PersonAgeRow;
+import io.github.com.crud_pessoa.repository.PersonSearchOrder;
+import io.github.com.crud_pessoa.repository.projection.PersonRow;
+import io.github.com.crud_pessoa.search.PersonNameIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.aot.DisabledInAotMode;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
+// Mockito creates its mocks at runtime, which a native image cannot do
+@DisabledInAotMode
 @ExtendWith(MockitoExtension.class)
 public class PersonServiceTest {
     @Mock
     private PersonRepository personRepository;
 
+    @Mock
+    private AddressRepository addressRepository;
+
     @Mock
     private PersonMapper mapper;
 
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private AddressMapper addressMapper;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private PersonNameIndex nameIndex;
+
+    @Mock
+    private CpfReservations cpfReservations;
+
+    @Mock
+    private PersonCache personCache;
+
     @InjectMocks
     private PersonService personService;
     private Person person;
@@ -54,9 +117,9 @@ public class PersonServiceTest {
 
         Person savedPersonEntity = new Person(1L, "Josias Barreto", LocalDate.of(1994, 9, 24), "128.363.000-19", List.of(new Address(1L, "Avenida José Carlos Pereira Pinto", "178-A", "Parque Guarus", "Campos dos Goytacazes", "RJ", "28143-000")));
 
-        PersonResponseDTO expectedResponseDTO = new PersonResponseDTO(1L, "Josias Barreto", LocalDate.of(1994, 9, 24), "128.363.000-19", List.of(new AddressResponseDTO(1L, "Avenida José Carlos Pereira Pinto", "178-A", "Parque Guarus", "Campos dos Goytacazes", "RJ", "28143-000")));
+        PersonResponseDTO expectedResponseDTO = new PersonResponseDTO(1L, "Josias Barreto", LocalDate.of(1994, 9, 24), "128.363.000-19", List.of(new AddressResponseDTO(1L, "Avenida José Carlos Pereira Pinto", "178-A", "Parque Guarus", "Campos dos Goytacazes", "RJ", "28143-000")), 0L);
         when(mapper.toEntity(any(PersonRequestDTO.class))).thenReturn(entityToSave);
-        when(personRepository.existsByCpf(entityToSave.getCpf())).thenReturn(false);
+        when(cpfReservations.reserve(List.of(entityToSave.getCpf()))).thenReturn(Set.of());
         when(personRepository.save(any(Person.class))).thenReturn(savedPersonEntity);
         when(mapper.toDTO(savedPersonEntity)).thenReturn(expectedResponseDTO);
 
@@ -77,7 +140,7 @@ public class PersonServiceTest {
         assertEquals(expectedResponseDTO.addresses().get(0).zipCode(), actualResponse.addresses().get(0).zipCode());
 
         verify(mapper, times(1)).toEntity(personRequestDTO);
-        verify(personRepository, times(1)).existsByCpf(entityToSave.getCpf());
+        verify(cpfReservations, times(1)).reserve(List.of(entityToSave.getCpf()));
         verify(personRepository, times(1)).save(entityToSave);
         verify(mapper, times(1)).toDTO(savedPersonEntity);
         verifyNoMoreInteractions(personRepository, mapper);
@@ -91,7 +154,7 @@ public class PersonServiceTest {
         Person entityToSave = new Person(null, "Maria Silva", LocalDate.of(1990, 5, 20), "123.456.789-00", List.of(new Address(1L, "Rua Exemplo", "123", "Bairro Exemplo", "Cidade Exemplo", "SP", "12345-678")));
 
         when(mapper.toEntity(any(PersonRequestDTO.class))).thenReturn(entityToSave);
-        when(personRepository.existsByCpf(entityToSave.getCpf())).thenReturn(true);
+        when(cpfReservations.reserve(List.of(entityToSave.getCpf()))).thenReturn(Set.of(entityToSave.getCpf()));
 
         try {
             personService.savePerson(personRequestDTO);
@@ -100,16 +163,59 @@ public class PersonServiceTest {
         }
 
         verify(mapper, times(1)).toEntity(personRequestDTO);
-        verify(personRepository, times(1)).existsByCpf(entityToSave.getCpf());
+        verify(cpfReservations, times(1)).reserve(List.of(entityToSave.getCpf()));
         verifyNoMoreInteractions(personRepository, mapper);
     }
 
+    @Test
+    @DisplayName("Deve criar um lote de pessoas com uma única reserva de CPFs e reportar as falhas por item")
+    @SuppressWarnings("unchecked")
+    void shouldCreateBatchWithSingleCpfReservationAndReportFailuresPerItem() {
+        var address = List.of(new AddressRequestDTO(null, "Rua Exemplo", "123", "Centro", "Campos dos Goytacazes", "RJ", "28015-000"));
+        var valid = new PersonRequestDTO("Alice", LocalDate.of(1990, 1, 1), "128.363.000-19", address);
+        var existing = new PersonRequestDTO("Bob", LocalDate.of(1992, 2, 2), "926.591.480-74", address);
+        var duplicated = new PersonRequestDTO("Carol", LocalDate.of(1993, 3, 3), "128.363.000-19", address);
+        var invalid = new PersonRequestDTO("dave", LocalDate.of(1994, 4, 4), "428.209.060-01", address);
+
+        Path namePath = mock(Path.class);
+        when(namePath.toString()).thenReturn("name");
+        ConstraintViolation<PersonRequestDTO> violation = mock(ConstraintViolation.class);
+        when(violation.getPropertyPath()).thenReturn(namePath);
+        when(violation.getMessage()).thenReturn("The name must start with an uppercase letter and can only contain letters and spaces.");
+        when(validator.validate(any(PersonRequestDTO.class))).thenReturn(Set.of());
+        when(validator.validate(invalid)).thenReturn(Set.of(violation));
+
+        Person entity = new Person(null, "Alice", LocalDate.of(1990, 1, 1), "128.363.000-19", new ArrayList<>());
+        Person savedEntity = new Person(1L, "Alice", LocalDate.of(1990, 1, 1), "128.363.000-19", new ArrayList<>());
+        PersonResponseDTO savedDTO = new PersonResponseDTO(1L, "Alice", LocalDate.of(1990, 1, 1), "128.363.000-19", new ArrayList<>(), 0L);
+        when(cpfReservations.reserve(Set.of("128.363.000-19", "926.591.480-74"))).thenReturn(Set.of("926.591.480-74"));
+        when(mapper.toEntity(valid)).thenReturn(entity);
+        when(personRepository.saveAll(List.of(entity))).thenReturn(List.of(savedEntity));
+        when(mapper.toDTO(savedEntity)).thenReturn(savedDTO);
+
+        List<PersonBatchItemResultDTO> results = personService.savePersons(List.of(valid, existing, duplicated, invalid));
+
+        assertEquals(4, results.size());
+        assertEquals(new PersonBatchItemResultDTO(0, 201, savedDTO, null), results.get(0));
+        assertEquals(409, results.get(1).status());
+        assertEquals("There is already a registered user with the CPF provided: 926.591.480-74", results.get(1).message());
+        assertEquals(409, results.get(2).status());
+        assertEquals(400, results.get(3).status());
+        assertEquals("name: The name must start with an uppercase letter and can only contain letters and spaces.", results.get(3).message());
+
+        verify(cpfReservations, times(1)).reserve(any());
+        verify(personRepository, times(1)).saveAll(List.of(entity));
+        verify(personRepository, never()).existsByCpf(any());
+        verifyNoMoreInteractions(personRepository);
+    }
+
     @Test
     @DisplayName("Quando buscar uma pessoa pelo ID, deve retornar a pessoa correspondente")
     void shouldReturnPersonById() {
         Person expectedPerson = new Person(validPersonId, "John Doe", LocalDate.of(2000, 1, 1), "926.591.480-74", new ArrayList<>());
-        PersonResponseDTO expectedResponseDTO = new PersonResponseDTO(validPersonId, "John Doe", LocalDate.of(2000, 1, 1), "926.591.480-74", new ArrayList<>());
+        PersonResponseDTO expectedResponseDTO = new PersonResponseDTO(validPersonId, "John Doe", LocalDate.of(2000, 1, 1), "926.591.480-74", new ArrayList<>(), 0L);
 
+        readThroughCache();
         when(personRepository.findById(validPersonId)).thenReturn(Optional.of(expectedPerson));
         when(mapper.toDTO(expectedPerson)).thenReturn(expectedResponseDTO);
 
@@ -128,6 +234,7 @@ public class PersonServiceTest {
     @Test
     @DisplayName("Deve lançar uma exceção ao buscar uma pessoa com ID inexistente")
     void shouldThrowExceptionWhenPersonNotFoundById() {
+        readThroughCache();
         when(personRepository.findById(invalidPersonId)).thenThrow(new ResourceNotFoundException("Person with ID " + invalidPersonId + " not found."));
         try {
             personService.getPersonById(invalidPersonId);
@@ -149,6 +256,7 @@ public class PersonServiceTest {
 
         verify(personRepository, times(1)).findById(validPersonId);
         verify(personRepository, times(1)).delete(personToDelete);
+        verify(cpfReservations, times(1)).releaseOnCommit("123.456.789-00");
     }
 
     @Test
@@ -171,17 +279,15 @@ public class PersonServiceTest {
     void shouldReturnPagedListOfPersonsSuccessfully() {
         int page = 0;
         int size = 10;
-        List<Person> persons = List.of(
-                new Person(1L, "Alice", LocalDate.of(1990, 1, 1), "123.456.789-00", new ArrayList<>()),
-                new Person(2L, "Bob", LocalDate.of(1992, 2, 2), "987.654.321-00", new ArrayList<>())
+        List<PersonRow> persons = List.of(
+                new PersonRow(1L, "Alice", LocalDate.of(1990, 1, 1), "123.456.789-00", 0L),
+                new PersonRow(2L, "Bob", LocalDate.of(1992, 2, 2), "987.654.321-00", 0L)
         );
-        Page<Person> pagedPersons = new PageImpl<>(persons, PageRequest.of(page, size), persons.size());
+        Page<PersonRow> pagedPersons = new PageImpl<>(persons, PageRequest.of(page, size), persons.size());
 
-        when(personRepository.findAll(PageRequest.of(page, size))).thenReturn(pagedPersons);
-        when(mapper.toDTO(any(Person.class))).thenAnswer(invocation -> {
-            Person person = invocation.getArgument(0);
-            return new PersonResponseDTO(person.getId(), person.getName(), person.getDateOfBirth(), person.getCpf(), new ArrayList<>());
-        });
+        when(personRepository.findRows(PageRequest.of(page, size))).thenReturn(pagedPersons);
+        when(addressRepository.findRowsByPersonIdIn(List.of(1L, 2L))).thenReturn(List.of());
+        when(mapper.toDTO(any(PersonRow.class), anyList())).thenAnswer(PersonServiceTest::rowToDTO);
 
         Page<PersonResponseDTO> actualPage = personService.getAllPersons(page, size);
 
@@ -191,8 +297,127 @@ public class PersonServiceTest {
         assertEquals("Alice", actualPage.getContent().get(0).name());
         assertEquals("Bob", actualPage.getContent().get(1).name());
 
-        verify(personRepository, times(1)).findAll(PageRequest.of(page, size));
-        verify(mapper, times(2)).toDTO(any(Person.class));
+        verify(personRepository, times(1)).findRows(PageRequest.of(page, size));
+        verify(addressRepository, times(1)).findRowsByPersonIdIn(List.of(1L, 2L));
+        verify(mapper, times(2)).toDTO(any(PersonRow.class), anyList());
+    }
+
+    @Test
+    @DisplayName("Deve retornar a primeira página por cursor ordenada por ID com o próximo cursor")
+    void shouldReturnFirstCursorPageOrderedByIdWithNextCursor() {
+        int size = 2;
+        var pageable = PageRequest.of(0, size, Sort.by(Sort.Direction.ASC, "id"));
+        List<PersonRow> persons = List.of(
+                new PersonRow(1L, "Alice", LocalDate.of(1990, 1, 1), "123.456.789-00", 0L),
+                new PersonRow(2L, "Bob", LocalDate.of(1992, 2, 2), "987.654.321-00", 0L)
+        );
+
+        when(personRepository.findRowsByIdGreaterThan(0L, pageable)).thenReturn(new SliceImpl<>(persons, pageable, true));
+        when(mapper.toDTO(any(PersonRow.class), anyList())).thenAnswer(PersonServiceTest::rowToDTO);
+
+        CursorPageResponseDTO<PersonResponseDTO> firstPage = personService.getPersonsAfter(null, size);
+
+        assertEquals(2, firstPage.content().size());
+        assertTrue(firstPage.hasNext());
+        assertNotNull(firstPage.nextCursor());
+
+        when(personRepository.findRowsByIdGreaterThan(2L, pageable)).thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        CursorPageResponseDTO<PersonResponseDTO> lastPage = personService.getPersonsAfter(firstPage.nextCursor(), size);
+
+        assertTrue(lastPage.content().isEmpty());
+        assertFalse(lastPage.hasNext());
+        assertNull(lastPage.nextCursor());
+        verify(personRepository, times(1)).findRowsByIdGreaterThan(0L, pageable);
+        verify(personRepository, times(1)).findRowsByIdGreaterThan(2L, pageable);
+        verify(personRepository, never()).findRows(any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("Deve lançar uma exceção quando o cursor for inválido")
+    void shouldThrowExceptionWhenCursorIsInvalid() {
+        assertThrows(InvalidCursorException.class, () -> personService.getPersonsAfter("not-a-cursor", 10));
+        verifyNoInteractions(personRepository, mapper);
+    }
+
+    @Test
+    @DisplayName("Deve buscar por prefixo do nome buscando uma linha a mais para saber se há próxima página")
+    void shouldSearchByNamePrefixFetchingOneExtraRow() {
+        var filter = new PersonSearchFilterDTO("Jo", null, null, null, null, null, null);
+        List<PersonRow> rows = List.of(
+                new PersonRow(7L, "Joana", LocalDate.of(1990, 1, 1), "1", 0L),
+                new PersonRow(3L, "José", LocalDate.of(1990, 1, 1), "2", 0L),
+                new PersonRow(5L, "Josias", LocalDate.of(1990, 1, 1), "3", 0L));
+        when(personRepository.findRows(any(Specification.class), eq(PersonSearchOrder.NAME.sort()), eq(3))).thenReturn(rows);
+        when(mapper.toDTO(any(PersonRow.class), anyList())).thenAnswer(PersonServiceTest::rowToDTO);
+
+        CursorPageResponseDTO<PersonResponseDTO> page = personService.searchPersons(filter, null, 2);
+
+        assertEquals(List.of(7L, 3L), page.content().stream().map(PersonResponseDTO::id).toList());
+        assertTrue(page.hasNext());
+        assertEquals(new PersonSearchCursor.Position("José", 3L), PersonSearchCursor.decode(page.nextCursor(), PersonSearchOrder.NAME));
+        verify(addressRepository, times(1)).findRowsByPersonIdIn(List.of(7L, 3L));
+        verify(mapper, times(2)).toDTO(any(PersonRow.class), anyList());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar um cursor de busca gerado para outro filtro")
+    void shouldRejectSearchCursorFromAnotherOrder() {
+        String cursor = PersonSearchCursor.encode(PersonSearchOrder.NAME, "José", 3L);
+        var filter = new PersonSearchFilterDTO(null, null, "Campos dos Goytacazes", null, null, null, null);
+
+        assertThrows(InvalidCursorException.class, () -> personService.searchPersons(filter, cursor, 10));
+        verifyNoInteractions(personRepository, mapper);
+    }
+
+    @Test
+    @DisplayName("Deve recusar a busca por nome enquanto o índice ainda está carregando")
+    void shouldRejectNameSearchWhileIndexIsLoading() {
+        when(nameIndex.isReady()).thenReturn(false);
+
+        assertThrows(SearchIndexUnavailableException.class, () -> personService.searchByName("joao", 0.5, 10));
+        verify(nameIndex, never()).search(anyString(), anyDouble(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve recusar limit e minScore fora dos limites da busca por nome sem consultar o índice")
+    void shouldRejectOutOfRangeNameSearchParameters() {
+        assertThrows(InvalidSearchParameterException.class, () -> personService.searchByName("joao", 0.5, Integer.MAX_VALUE));
+        assertThrows(InvalidSearchParameterException.class, () -> personService.searchByName("joao", 0.5, PersonService.MAX_NAME_MATCHES + 1));
+        assertThrows(InvalidSearchParameterException.class, () -> personService.searchByName("joao", 0.5, 0));
+        assertThrows(InvalidSearchParameterException.class, () -> personService.searchByName("joao", 1.5, 10));
+        assertThrows(InvalidSearchParameterException.class, () -> personService.searchByName("joao", Double.NaN, 10));
+        verifyNoInteractions(nameIndex);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar tamanhos de página fora dos limites na listagem e na busca por cursor")
+    void shouldRejectOutOfRangeCursorPageSizes() {
+        var filter = new PersonSearchFilterDTO("Jo", null, null, null, null, null, null);
+        for (int size : new int[]{0, -1, PersonService.MAX_CURSOR_PAGE_SIZE + 1}) {
+            assertThrows(InvalidSearchParameterException.class, () -> personService.getPersonsAfter(null, size));
+            assertThrows(InvalidSearchParameterException.class, () -> personService.searchPersons(filter, null, size));
+        }
+        verifyNoInteractions(personRepository);
+    }
+
+    @Test
+    @DisplayName("Deve exportar todas as pessoas em ordem carregando os endereços uma vez por bloco")
+    void shouldExportAllPersonsInOrderLoadingAddressesOncePerChunk() {
+        int total = PersonService.EXPORT_CHUNK_SIZE * 2 + 1;
+        var persons = IntStream.rangeClosed(1, total)
+                .mapToObj(i -> new PersonRow((long) i, "Person " + i, LocalDate.of(1990, 1, 1), String.valueOf(i), 0L));
+        when(personRepository.streamRowsOrderById()).thenReturn(persons);
+        when(mapper.toDTO(any(PersonRow.class), anyList())).thenAnswer(PersonServiceTest::rowToDTO);
+
+        List<Long> exportedIds = new ArrayList<>();
+        personService.exportPersons(dto -> exportedIds.add(dto.id()));
+
+        assertEquals(total, exportedIds.size());
+        assertEquals(1L, exportedIds.get(0));
+        assertEquals((long) total, exportedIds.get(total - 1));
+        verify(addressRepository, times(3)).findRowsByPersonIdIn(anyList());
+        verify(personRepository, never()).findAll();
     }
 
     @Test
@@ -200,21 +425,25 @@ public class PersonServiceTest {
     void shouldUpdatePersonSuccessfullyWhenIdIsValidAndCpfMatches() {
         PersonRequestDTO personRequestDTO = new PersonRequestDTO("John Doe", LocalDate.of(2000, 1, 1), "926.591.480-74", new ArrayList<>());
         Person existingPerson = new Person(validPersonId, "John Doe", LocalDate.of(2000, 1, 1), "926.591.480-74", new ArrayList<>());
+        existingPerson.setVersion(0L);
+        PersonResponseDTO existingDTO = new PersonResponseDTO(validPersonId, "John Doe", LocalDate.of(2000, 1, 1), "926.591.480-74", new ArrayList<>(), 0L);
         Person updatedPerson = new Person(validPersonId, "John Doe Updated", LocalDate.of(2000, 1, 1), "926.591.480-74", new ArrayList<>());
-        PersonResponseDTO expectedResponseDTO = new PersonResponseDTO(validPersonId, "John Doe Updated", LocalDate.of(2000, 1, 1), "926.591.480-74", new ArrayList<>());
+        PersonResponseDTO expectedResponseDTO = new PersonResponseDTO(validPersonId, "John Doe Updated", LocalDate.of(2000, 1, 1), "926.591.480-74", new ArrayList<>(), 1L);
 
         when(personRepository.findById(validPersonId)).thenReturn(Optional.of(existingPerson));
+        when(mapper.toDTO(existingPerson)).thenReturn(existingDTO);
         when(mapper.toEntity(personRequestDTO)).thenReturn(updatedPerson);
         when(personRepository.save(updatedPerson)).thenReturn(updatedPerson);
         when(mapper.toDTO(updatedPerson)).thenReturn(expectedResponseDTO);
 
-        PersonResponseDTO actualResponse = personService.updatePerson(personRequestDTO, validPersonId);
+        PersonResponseDTO actualResponse = personService.updatePerson(personRequestDTO, validPersonId, 0L);
 
         assertNotNull(actualResponse);
         assertEquals(expectedResponseDTO.id(), actualResponse.id());
         assertEquals(expectedResponseDTO.name(), actualResponse.name());
         assertEquals(expectedResponseDTO.dateOfBirth(), actualResponse.dateOfBirth());
         assertEquals(expectedResponseDTO.cpf(), actualResponse.cpf());
+        assertEquals(0L, updatedPerson.getVersion());
 
         verify(personRepository, times(1)).findById(validPersonId);
         verify(mapper, times(1)).toEntity(personRequestDTO);
@@ -229,7 +458,7 @@ public class PersonServiceTest {
 
         when(personRepository.findById(invalidPersonId)).thenThrow(new ResourceNotFoundException("Person with ID " + invalidPersonId + " not found."));
         try {
-            personService.updatePerson(personRequestDTO, invalidPersonId);
+            personService.updatePerson(personRequestDTO, invalidPersonId, 0L);
         } catch (ResourceNotFoundException e) {
             assertEquals("Person with ID " + invalidPersonId + " not found.", e.getMessage());
         }
@@ -245,7 +474,7 @@ public class PersonServiceTest {
 
         when(personRepository.findById(validPersonId)).thenReturn(Optional.of(existingPerson));
         try {
-            personService.updatePerson(personRequestDTO, validPersonId);
+            personService.updatePerson(personRequestDTO, validPersonId, null);
         } catch (CpfMismatchException e) {
             assertEquals("CPF mismatch.", e.getMessage());
         }
@@ -253,14 +482,67 @@ public class PersonServiceTest {
         verifyNoMoreInteractions(personRepository, mapper);
     }
 
+    @Test
+    @DisplayName("Deve recusar a atualização quando a versão informada não for a atual")
+    void shouldRejectUpdateWhenVersionIsStale() {
+        PersonRequestDTO personRequestDTO = new PersonRequestDTO("John Doe", LocalDate.of(2000, 1, 1), "926.591.480-74", new ArrayList<>());
+        Person existingPerson = new Person(validPersonId, "John Doe", LocalDate.of(2000, 1, 1), "926.591.480-74", new ArrayList<>());
+        existingPerson.setVersion(3L);
+
+        when(personRepository.findById(validPersonId)).thenReturn(Optional.of(existingPerson));
+
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class,
+                () -> personService.updatePerson(personRequestDTO, validPersonId, 2L));
+
+        assertEquals("Person with ID 1 is at version 3, not 2. Fetch it again and retry.", exception.getMessage());
+        verify(personRepository, never()).save(any(Person.class));
+        verifyNoInteractions(mapper);
+    }
+
     @Test
     @DisplayName("Deve retornar a idade de uma pessoa com sucesso")
     void shouldReturnPersonAgeSuccessfully() {
         Person person = new Person(validPersonId, "Alice", LocalDate.of(1990, 1, 1), "123.456.789-00", new ArrayList<>());
 
-        when(personRepository.findById(validPersonId)).thenReturn(Optional.of(person));
+        when(personRepository.findAgeRowById(validPersonId)).thenReturn(Optional.of(new PersonAgeRow("Alice", person.getDateOfBirth())));
         String age = personService.calculateAgeById(validPersonId);
         String expectedAge = "The age of Alice is: " + person.getPersonAge() + " years.";
         assertEquals(expectedAge, age);
+        verify(personRepository, never()).findById(validPersonId);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar um patch que referencia um endereço de outra pessoa")
+    void shouldRejectPatchWithUnknownAddressId() {
+        Person existingPerson = new Person(validPersonId, "Alice", LocalDate.of(1990, 1, 1), "926.591.480-74", new ArrayList<>());
+        Address address = new Address(10L, "Rua A", "1", "Centro", "Campos dos Goytacazes", "RJ", "28015-000");
+        address.setPerson(existingPerson);
+        existingPerson.getAddresses().add(address);
+        var currentDTO = new PersonResponseDTO(validPersonId, "Alice", LocalDate.of(1990, 1, 1), "926.591.480-74",
+                List.of(new AddressResponseDTO(10L, "Rua A", "1", "Centro", "Campos dos Goytacazes", "RJ", "28015-000")), 0L);
+        var patch = objectMapper.createObjectNode();
+        patch.putArray("addresses").addObject()
+                .put("id", 99).put("street", "Rua B").put("number", "2").put("neighborhood", "Centro")
+                .put("city", "Campos dos Goytacazes").put("state", "RJ").put("zipCode", "28015-000");
+
+        when(personRepository.findById(validPersonId)).thenReturn(Optional.of(existingPerson));
+        when(mapper.toDTO(existingPerson)).thenReturn(currentDTO);
+        when(validator.validate(any(PersonRequestDTO.class))).thenReturn(Set.of());
+
+        InvalidPatchException exception = assertThrows(InvalidPatchException.class, () -> personService.patchPerson(patch, validPersonId, null));
+
+        assertEquals("Address with ID 99 does not belong to person 1", exception.getMessage());
+        verify(personRepository, never()).flush();
+    }
+
+    private static PersonResponseDTO rowToDTO(InvocationOnMock invocation) {
+        PersonRow row = invocation.getArgument(0);
+        return new PersonResponseDTO(row.id(), row.name(), row.dateOfBirth(), row.cpf(), invocation.getArgument(1), row.version());
+    }
+
+    // a cache that always misses: the loader given by the service runs for every read
+    private void readThroughCache() {
+        when(personCache.get(any(), any())).thenAnswer(invocation ->
+                invocation.<Function<Long, PersonResponseDTO>>getArgument(1).apply(invocation.getArgument(0)));
     }
 }
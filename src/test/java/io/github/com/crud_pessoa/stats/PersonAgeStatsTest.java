@@ -0,0 +1,88 @@
+package io.github.com.crud_pessoa.stats;
+
+import io.github.com.crud_pessoa.dto.StateAgeDistributionDTO;
+import io.github.com.crud_pessoa.repository.projection.BirthDateCount;
+import io.github.com.crud_pessoa.repository.projection.BirthDateStateCount;
+import io.github.com.crud_pessoa.service.PersonChangedEvent.Demographics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersonAgeStatsTest {
+
+    @Test
+    @DisplayName("Deve avançar as idades dia a dia com o mesmo resultado de uma contagem completa, inclusive em 29 de fevereiro")
+    void shouldRollOverLikeAFullRecount() {
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        List<Demographics> persons = new ArrayList<>();
+        // every birth date around each bracket boundary, leap days included, with one or two states
+        for (AgeBracket bracket : AgeBracket.values()) {
+            LocalDate from = start.minusYears(bracket.minAge()).minusDays(3);
+            for (LocalDate born = from; born.isBefore(from.plusYears(2).plusDays(6)); born = born.plusDays(1)) {
+                persons.add(new Demographics(born, born.getDayOfMonth() % 2 == 0 ? Set.of("RJ") : Set.of("RJ", "SP")));
+            }
+        }
+        PersonAgeStats rolled = load(persons, start);
+
+        for (LocalDate day = start.plusDays(1); day.isBefore(start.plusYears(2)); day = day.plusDays(1)) {
+            PersonAgeStats recounted = load(persons, day);
+            assertEquals(recounted.ageDistribution(day), rolled.ageDistribution(day), "on " + day);
+            assertEquals(recounted.byState(day), rolled.byState(day), "on " + day);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve atualizar os contadores ao criar, alterar e remover pessoas")
+    void shouldCountCreatesUpdatesAndDeletes() {
+        LocalDate today = LocalDate.of(2026, 10, 17);
+        PersonAgeStats stats = load(List.of(), today);
+        Demographics created = new Demographics(LocalDate.of(1994, 9, 24), Set.of("RJ"));
+        Demographics moved = new Demographics(LocalDate.of(2010, 1, 1), Set.of("SP", "MG"));
+
+        stats.replace(null, created);
+        assertEquals(1L, stats.ageDistribution(today).brackets().get("25-34"));
+        assertEquals(List.of(state("RJ", "25-34")), stats.byState(today));
+
+        stats.replace(created, moved);
+        assertEquals(0L, stats.ageDistribution(today).brackets().get("25-34"));
+        assertEquals(1L, stats.ageDistribution(today).brackets().get("0-17"));
+        assertEquals(List.of(state("MG", "0-17"), state("SP", "0-17")), stats.byState(today));
+
+        stats.replace(moved, null);
+        assertEquals(0, stats.ageDistribution(today).persons());
+        assertEquals(List.of(), stats.byState(today));
+    }
+
+    private static StateAgeDistributionDTO state(String state, String bracket) {
+        Map<String, Long> brackets = new HashMap<>();
+        for (AgeBracket b : AgeBracket.values()) {
+            brackets.put(b.label(), b.label().equals(bracket) ? 1L : 0L);
+        }
+        return new StateAgeDistributionDTO(state, 1, brackets);
+    }
+
+    // what the two GROUP BY queries of the loader return for these persons
+    private static PersonAgeStats load(List<Demographics> persons, LocalDate date) {
+        Map<LocalDate, Long> byDate = new HashMap<>();
+        Map<List<Object>, Long> byDateAndState = new HashMap<>();
+        for (Demographics person : persons) {
+            byDate.merge(person.dateOfBirth(), 1L, Long::sum);
+            person.states().forEach(state -> byDateAndState.merge(List.of(person.dateOfBirth(), state), 1L, Long::sum));
+        }
+        PersonAgeStats stats = new PersonAgeStats();
+        stats.load(byDate.entrySet().stream().map(e -> new BirthDateCount(e.getKey(), e.getValue())).toList(),
+                byDateAndState.entrySet().stream()
+                        .map(e -> new BirthDateStateCount((LocalDate) e.getKey().get(0), (String) e.getKey().get(1), e.getValue()))
+                        .toList(),
+                date);
+        return stats;
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.com.crud_pessoa.validation;
+
+import io.github.com.crud_pessoa.dto.AddressRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.Pattern;
+import org.hibernate.validator.constraints.br.CPF;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestConstraintsTest {
+    private static final String ALPHABET = "0123456789.-AZMaz@[`{/: \t\n\r\u0085\u2028\u2029ÇÁ\u0663";
+    private static final String[] FAVORED = {"0123456789-", "ABCXYZ", ALPHABET};
+
+    private static ValidatorFactory factory;
+    private static Validator validator;
+
+    // the constraints the request DTOs used before, kept here as the reference
+    record Before(
+            @CPF(message = "Invalid CPF") String cpf,
+            @Pattern(regexp = "^[A-Z]{2}$", message = "The state must be a valid two-letter abbreviation (e.g., SP, RJ, CA, NY)") String state,
+            @Pattern(regexp = "^[0-9]{5}-[0-9]{3}$|^[0-9]{8}$", message = "The ZIP code must be in the 00000-000 or 00000000 format") String zipCode,
+            @Pattern(regexp = "^[A-Z]+(.)*", message = "The name must start with an uppercase letter and can only contain letters and spaces.") String name) {
+    }
+
+    record After(
+            @Cpf(message = "Invalid CPF") String cpf,
+            @Uf(message = "The state must be a valid two-letter abbreviation (e.g., SP, RJ, CA, NY)") String state,
+            @Cep(message = "The ZIP code must be in the 00000-000 or 00000000 format") String zipCode,
+            @StartsWithUppercase(message = "The name must start with an uppercase letter and can only contain letters and spaces.") String name) {
+    }
+
+    @BeforeAll
+    static void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        factory.close();
+    }
+
+    @Test
+    @DisplayName("Deve aceitar e rejeitar exatamente os mesmos valores que as restrições anteriores, com as mesmas mensagens")
+    void shouldAgreeWithThePreviousConstraintsOnRandomValues() {
+        Random random = new Random(20241017);
+        for (int i = 0; i < 50_000; i++) {
+            String value = random.nextInt(3) == 0 ? cpf(random) : text(random);
+            for (String property : List.of("cpf", "state", "zipCode", "name")) {
+                assertEquals(messages(Before.class, property, value), messages(After.class, property, value),
+                        () -> property + " <" + value + ">");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter as mensagens de erro das requisições de pessoa")
+    void shouldKeepTheRequestErrorMessages() {
+        PersonRequestDTO request = new PersonRequestDTO("josias", LocalDate.of(1994, 9, 24), "111.111.111-11",
+                List.of(new AddressRequestDTO(null, "Rua", "1", "Centro", "Campos", "rj", "28143000-")));
+
+        Set<String> messages = validator.validate(request).stream().map(ConstraintViolation::getMessage).collect(Collectors.toSet());
+
+        assertEquals(Set.of("Invalid CPF",
+                "The name must start with an uppercase letter and can only contain letters and spaces.",
+                "The state must be a valid two-letter abbreviation (e.g., SP, RJ, CA, NY)",
+                "The ZIP code must be in the 00000-000 or 00000000 format"), messages);
+    }
+
+    private static Set<String> messages(Class<?> type, String property, String value) {
+        return validator.validateValue(type, property, value).stream().map(ConstraintViolation::getMessage).collect(Collectors.toSet());
+    }
+
+    // Mostly CPFs with the right check digits, in every layout and with a digit or separator now and then swapped.
+    private static String cpf(Random random) {
+        int[] digits = new int[11];
+        if (random.nextInt(10) == 0) {
+            Arrays.fill(digits, random.nextInt(10));
+        } else {
+            for (int i = 0; i < 9; i++) {
+                digits[i] = random.nextInt(10);
+            }
+            digits[9] = check(digits, 9);
+            digits[10] = check(digits, 10);
+        }
+        StringBuilder cpf = new StringBuilder();
+        int layout = random.nextInt(5);
+        for (int i = 0; i < 11; i++) {
+            if ((i == 3 || i == 6) && (layout == 0 || layout == 1 && i == 3 || layout == 2 && i == 6)) {
+                cpf.append('.');
+            }
+            if (i == 9 && layout < 4) {
+                cpf.append('-');
+            }
+            cpf.append(digits[i]);
+        }
+        if (random.nextInt(4) == 0) {
+            cpf.setCharAt(random.nextInt(cpf.length()), ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return cpf.toString();
+    }
+
+    private static int check(int[] digits, int count) {
+        int sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += digits[i] * (count + 1 - i);
+        }
+        return sum % 11 < 2 ? 0 : 11 - sum % 11;
+    }
+
+    // Short strings drawn mostly from digits, from uppercase letters or from anything, so each constraint sees
+    // plenty of values on both sides of its boundary.
+    private static String text(Random random) {
+        String favored = FAVORED[random.nextInt(FAVORED.length)];
+        int length = random.nextInt(16);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            String alphabet = random.nextInt(10) == 0 ? ALPHABET : favored;
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.com.crud_pessoa.writebehind;
+
+import io.github.com.crud_pessoa.Application;
+import io.github.com.crud_pessoa.dto.AddressRequestDTO;
+import io.github.com.crud_pessoa.dto.PersonRequestDTO;
+import io.github.com.crud_pessoa.model.PersonWrite;
+import io.github.com.crud_pessoa.repository.PersonRepository;
+import io.github.com.crud_pessoa.repository.PersonWriteRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.aot.DisabledInAotMode;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// boots the main application context in a separate JVM, which the AOT-generated test contexts do not cover
+@DisabledInAotMode
+class PersonWriteBehindCrashTest {
+    private static final int WRITES = 2000;
+    private static final String DRAINED = "DRAINED ";
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    @DisplayName("Deve aplicar cada escrita exatamente uma vez depois de a JVM morrer no meio da drenagem")
+    void shouldApplyEveryWriteOnceAfterTheJvmIsKilledMidDrain() throws Exception {
+        Process crasher = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Dspring.devtools.restart.enabled=false", "-cp", System.getProperty("java.class.path"), Crasher.class.getName(), dataDir.toString())
+                .redirectErrorStream(true)
+                .start();
+        long drained = -1;
+        StringBuilder log = new StringBuilder();
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(crasher.getInputStream()))) {
+            for (String line = output.readLine(); line != null; line = output.readLine()) {
+                log.append(line).append("\n");
+                if (line.startsWith(DRAINED)) {
+                    drained = Long.parseLong(line.substring(DRAINED.length()));
+                }
+            }
+        }
+        assertTrue(crasher.waitFor(2, TimeUnit.MINUTES));
+        assertTrue(drained > 0 && drained < WRITES, "killed after " + drained + " writes\n" + log);
+
+        try (ConfigurableApplicationContext context = start(dataDir)) {
+            PersonWriteBehind writeBehind = context.getBean(PersonWriteBehind.class);
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+            while (writeBehind.pending() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+
+            List<PersonWrite> writes = context.getBean(PersonWriteRepository.class).findAll();
+            assertEquals(WRITES, writes.size());
+            assertTrue(writes.stream().allMatch(write -> write.getStatus() == PersonWrite.Status.APPLIED));
+            assertEquals(WRITES, context.getBean(PersonRepository.class).count());
+        }
+    }
+
+    private static ConfigurableApplicationContext start(Path dataDir) {
+        return new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=prod", "--DATA_DIR=" + dataDir,
+                        "--person.write-behind.enabled=true", "--person.write-behind.batch-size=50");
+    }
+
+    /**
+     * Accepts every write, then halts the JVM (no shutdown hooks, no flushing) as soon as a quarter of them
+     * reached the database. H2 may lose its last commits with the JVM, which takes the checkpoint back with them.
+     */
+    static class Crasher {
+        public static void main(String[] args) throws InterruptedException {
+            ConfigurableApplicationContext context = start(Path.of(args[0]));
+            PersonWriteBehind writeBehind = context.getBean(PersonWriteBehind.class);
+            PersonWriteRepository writeRepository = context.getBean(PersonWriteRepository.class);
+            for (int i = 0; i < WRITES; i++) {
+                writeBehind.submitCreate(new PersonRequestDTO("Pessoa " + i, LocalDate.of(1990, 1, 1).plusDays(i), cpf(100_000_000 + i),
+                        List.of(new AddressRequestDTO(null, "Avenida José Carlos Pereira Pinto", "178-A", "Parque Guarus", "Campos dos Goytacazes", "RJ", "28143-000"))));
+            }
+            long drained;
+            while ((drained = Objects.requireNonNullElse(writeRepository.findMaxId(), 0L)) < WRITES / 4) {
+                Thread.sleep(1);
+            }
+            System.out.println(DRAINED + drained);
+            System.out.flush();
+            Runtime.getRuntime().halt(1);
+        }
+    }
+
+    // n as the nine base digits, followed by its two check digits
+    private static String cpf(int n) {
+        int[] digits = new int[11];
+        for (int i = 8; i >= 0; i--, n /= 10) {
+            digits[i] = n % 10;
+        }
+        for (int check = 9; check <= 10; check++) {
+            int sum = 0;
+            for (int i = 0; i < check; i++) {
+                sum += digits[i] * (check + 1 - i);
+            }
+            digits[check] = sum % 11 < 2 ? 0 : 11 - sum % 11;
+        }
+        StringBuilder cpf = new StringBuilder(11);
+        for (int digit : digits) {
+            cpf.append(digit);
+        }
+        return cpf.toString();
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.com.crud_pessoa.writebehind;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindLogTest {
+    private static final int SEGMENT_BYTES = 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Deve ler as entradas na ordem em que foram gravadas, passando de um segmento para o outro")
+    void shouldReadEntriesInOrderAcrossSegments() throws Exception {
+        try (WriteBehindLog log = WriteBehindLog.open(dir, SEGMENT_BYTES, false, 0)) {
+            for (int i = 1; i <= 100; i++) {
+                assertEquals(i, log.append(payload(i)));
+            }
+            assertTrue(segments().size() > 1);
+
+            List<WriteBehindLog.Entry> entries = drain(log);
+
+            assertEquals(100, entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                assertEquals(i + 1, entries.get(i).sequence());
+                assertArrayEquals(payload(i + 1), entries.get(i).payload());
+            }
+            log.release(100);
+            assertEquals(1, segments().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve retomar depois da última entrada aplicada e descartar um registro incompleto ao reabrir")
+    void shouldRecoverAfterTheDrainedEntriesAndDropATornRecord() throws Exception {
+        try (WriteBehindLog log = WriteBehindLog.open(dir, SEGMENT_BYTES, false, 0)) {
+            for (int i = 1; i <= 40; i++) {
+                log.append(payload(i));
+            }
+        }
+        // the process died while copying entry 41: its length made it to the file, its payload did not
+        Path last = segments().get(segments().size() - 1);
+        long end = endOfRecords(last);
+        try (RandomAccessFile file = new RandomAccessFile(last.toFile(), "rw")) {
+            file.seek(end);
+            file.writeInt(100);
+        }
+
+        try (WriteBehindLog log = WriteBehindLog.open(dir, SEGMENT_BYTES, false, 25)) {
+            assertEquals(40, log.lastSequence());
+            List<WriteBehindLog.Entry> entries = drain(log);
+            assertEquals(26, entries.get(0).sequence());
+            assertEquals(40, entries.get(entries.size() - 1).sequence());
+
+            assertEquals(41, log.append(payload(41)));
+            assertArrayEquals(payload(41), drain(log).get(0).payload());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve continuar a numeração depois do checkpoint quando o log tiver sido apagado")
+    void shouldContinueSequencesAfterTheCheckpoint() throws Exception {
+        try (WriteBehindLog log = WriteBehindLog.open(dir, SEGMENT_BYTES, false, 500)) {
+            assertEquals(500, log.lastSequence());
+            assertEquals(501, log.append(payload(501)));
+            assertEquals(501, drain(log).get(0).sequence());
+        }
+    }
+
+    private static byte[] payload(int i) {
+        return ("entry-" + i).repeat(i % 7 + 1).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<WriteBehindLog.Entry> drain(WriteBehindLog log) throws InterruptedException {
+        List<WriteBehindLog.Entry> entries = new ArrayList<>();
+        for (List<WriteBehindLog.Entry> batch = log.poll(16, 0); !batch.isEmpty(); batch = log.poll(16, 0)) {
+            entries.addAll(batch);
+        }
+        return entries;
+    }
+
+    // where the next record of the last segment goes: after each record's header and payload
+    private static long endOfRecords(Path segment) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "r")) {
+            long position = 0;
+            for (int length = file.readInt(); length != 0; length = file.readInt()) {
+                position += 16 + length;
+                file.seek(position);
+            }
+            return position;
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+}